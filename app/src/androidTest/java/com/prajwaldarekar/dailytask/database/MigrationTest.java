@@ -0,0 +1,191 @@
+package com.prajwaldarekar.dailytask.database;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.prajwaldarekar.dailytask.recurrence.EpochDays;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the recent migrations on a database laid out like an older install and lets Room
+ * validate the result against the exported schema (app/schemas), the same check it does
+ * when the app opens an upgraded database.
+ *
+ * Schemas before 13 were never exported, so the starting databases are created with the
+ * SQL Room generated for those versions.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MigrationTest {
+
+    private static final String TEST_DB = "migration-test";
+
+    // 2024-03-15 09:30 and 18:45 local time
+    private static final long DATE = EpochDays.toMillis(EpochDays.of(2024, 3, 15), 9 * 60 + 30);
+    private static final long TIME = EpochDays.toMillis(EpochDays.of(2024, 3, 15), 18 * 60 + 45);
+
+    @Rule
+    public final MigrationTestHelper helper = new MigrationTestHelper(
+            InstrumentationRegistry.getInstrumentation(), AppDatabase.class);
+
+    private File dbFile;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dbFile = context.getDatabasePath(TEST_DB);
+        context.deleteDatabase(TEST_DB);
+        dbFile.getParentFile().mkdirs();
+    }
+
+    @Test
+    public void migrate11To13() throws Exception {
+        try (SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(dbFile, null)) {
+            createVersion11(db);
+            db.execSQL("INSERT INTO tasks (id, title, description, date, time, isCompleted, type, repeatMode, createdAt) " +
+                    "VALUES (1, 'Buy milk', NULL, " + DATE + ", NULL, NULL, 'TASK', NULL, " + DATE + ")");
+            db.execSQL("INSERT INTO tasks (id, title, description, date, time, isCompleted, type, repeatMode, createdAt) " +
+                    "VALUES (2, 'Stretch', 'Morning', " + DATE + ", " + TIME + ", 0, 'REMINDER', 1, " + DATE + ")");
+            db.execSQL("INSERT INTO tasks (id, title, description, date, time, isCompleted, type, repeatMode, createdAt) " +
+                    "VALUES (3, 'Ideas', NULL, NULL, NULL, 1, NULL, NULL, " + DATE + ")");
+            db.execSQL("INSERT INTO reminder_queue (task_id, trigger_at, title, repeat_mode, created_at) " +
+                    "VALUES (2, " + TIME + ", 'Stretch', 'DAILY', " + DATE + ")");
+            db.setVersion(11);
+        }
+
+        SupportSQLiteDatabase db = helper.runMigrationsAndValidate(TEST_DB, 13, true,
+                AppDatabase.MIGRATION_11_12, AppDatabase.MIGRATION_12_13);
+
+        int day = EpochDays.of(2024, 3, 15);
+        try (Cursor c = db.query("SELECT id, epoch_day, minute_of_day, isCompleted, type, repeatMode FROM tasks ORDER BY id")) {
+            assertTrue(c.moveToNext());     // Plain task: no time, so the date's minute
+            assertRow(c, 1, day, 9 * 60 + 30, 0, 0, 0);
+            assertTrue(c.moveToNext());     // Daily reminder: the time column's minute
+            assertRow(c, 2, day, 18 * 60 + 45, 0, 2, 1);
+            assertTrue(c.moveToNext());     // No date and no type: created day, defaults
+            assertRow(c, 3, day, 9 * 60 + 30, 1, 0, 0);
+        }
+        try (Cursor c = db.query("SELECT repeat_mode FROM reminder_queue WHERE task_id = 2")) {
+            assertTrue(c.moveToNext());
+            assertEquals(1, c.getInt(0));
+        }
+        try (Cursor c = db.query("SELECT rowid FROM tasks_fts WHERE tasks_fts MATCH 'milk*'")) {
+            assertTrue(c.moveToNext());
+            assertEquals(1, c.getInt(0));
+        }
+    }
+
+    @Test
+    public void migrate12To13() throws Exception {
+        int day = EpochDays.of(2024, 3, 15);
+        try (SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(dbFile, null)) {
+            createVersion12(db);
+            db.execSQL("INSERT INTO tasks (id, title, description, epoch_day, minute_of_day, isCompleted, type, repeatMode, createdAt) " +
+                    "VALUES (1, 'Journal', NULL, " + day + ", 600, 1, 'NOTE', 0, " + DATE + ")");
+            db.execSQL("INSERT INTO tasks (id, title, description, epoch_day, minute_of_day, isCompleted, type, repeatMode, createdAt) " +
+                    "VALUES (2, 'Pay rent', NULL, " + day + ", 540, 0, 'REMINDER', 3, " + DATE + ")");
+            db.execSQL("INSERT INTO tasks (id, title, description, epoch_day, minute_of_day, isCompleted, type, repeatMode, createdAt) " +
+                    "VALUES (3, 'Unknown', NULL, " + day + ", 0, 0, NULL, 0, " + DATE + ")");
+            db.execSQL("INSERT INTO reminder_queue (task_id, trigger_at, title, repeat_mode, created_at) " +
+                    "VALUES (2, " + TIME + ", 'Pay rent', 'MONTHLY', " + DATE + ")");
+            db.setVersion(12);
+        }
+
+        SupportSQLiteDatabase db = helper.runMigrationsAndValidate(TEST_DB, 13, true,
+                AppDatabase.MIGRATION_12_13);
+
+        try (Cursor c = db.query("SELECT id, epoch_day, minute_of_day, isCompleted, type, repeatMode FROM tasks ORDER BY id")) {
+            assertTrue(c.moveToNext());
+            assertRow(c, 1, day, 600, 1, 1, 0);
+            assertTrue(c.moveToNext());
+            assertRow(c, 2, day, 540, 0, 2, 3);
+            assertTrue(c.moveToNext());     // Missing type becomes TASK
+            assertRow(c, 3, day, 0, 0, 0, 0);
+        }
+        try (Cursor c = db.query("SELECT repeat_mode FROM reminder_queue WHERE task_id = 2")) {
+            assertTrue(c.moveToNext());
+            assertEquals(3, c.getInt(0));
+        }
+    }
+
+    private static void assertRow(Cursor c, int id, int epochDay, int minuteOfDay,
+                                  int isCompleted, int type, int repeatMode) {
+        assertEquals(id, c.getInt(0));
+        assertEquals(epochDay, c.getInt(1));
+        assertEquals(minuteOfDay, c.getInt(2));
+        assertEquals(isCompleted, c.getInt(3));
+        assertEquals(type, c.getInt(4));
+        assertEquals(repeatMode, c.getInt(5));
+    }
+
+    // 🗄 --- Older layouts, as Room created them ---
+
+    private static void createVersion11(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS `tasks` (" +
+                "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `title` TEXT, `description` TEXT, " +
+                "`date` INTEGER, `time` INTEGER, `isCompleted` INTEGER, `type` TEXT, `repeatMode` INTEGER, " +
+                "`createdAt` INTEGER NOT NULL)");
+        db.execSQL("CREATE TABLE IF NOT EXISTS `reminder_queue` (" +
+                "`task_id` INTEGER NOT NULL, `trigger_at` INTEGER NOT NULL, `title` TEXT, `repeat_mode` TEXT, " +
+                "`created_at` INTEGER NOT NULL, PRIMARY KEY(`task_id`))");
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_reminder_queue_trigger_at` ON `reminder_queue` (`trigger_at`)");
+        createUnchangedTables(db);
+    }
+
+    private static void createVersion12(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS `tasks` (" +
+                "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `title` TEXT, `description` TEXT, " +
+                "`epoch_day` INTEGER NOT NULL, `minute_of_day` INTEGER NOT NULL, `isCompleted` INTEGER NOT NULL, " +
+                "`type` TEXT, `repeatMode` INTEGER NOT NULL, `createdAt` INTEGER NOT NULL)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_epoch_day_minute_of_day` ON `tasks` (`epoch_day`, `minute_of_day`)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_isCompleted_epoch_day` ON `tasks` (`isCompleted`, `epoch_day`)");
+        db.execSQL("CREATE TABLE IF NOT EXISTS `reminder_queue` (" +
+                "`task_id` INTEGER NOT NULL, `trigger_at` INTEGER NOT NULL, `title` TEXT, `repeat_mode` TEXT, " +
+                "`created_at` INTEGER NOT NULL, PRIMARY KEY(`task_id`))");
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_reminder_queue_trigger_at` ON `reminder_queue` (`trigger_at`)");
+        createUnchangedTables(db);
+    }
+
+    // Tables the migrations under test leave alone
+    private static void createUnchangedTables(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS `task_completion` (" +
+                "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `task_id` INTEGER NOT NULL, " +
+                "`completion_date` INTEGER NOT NULL, `is_completed` INTEGER NOT NULL, `completed_at` INTEGER)");
+        db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_task_completion_task_id_completion_date` " +
+                "ON `task_completion` (`task_id`, `completion_date`)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_task_completion_completion_date` ON `task_completion` (`completion_date`)");
+        db.execSQL("CREATE TABLE IF NOT EXISTS `task_stats` (" +
+                "`task_id` INTEGER NOT NULL, `current_streak` INTEGER NOT NULL, `longest_streak` INTEGER NOT NULL, " +
+                "`total_completions` INTEGER NOT NULL, `last_completed_day` INTEGER NOT NULL, PRIMARY KEY(`task_id`))");
+        db.execSQL("CREATE TABLE IF NOT EXISTS `completion_month` (" +
+                "`task_id` INTEGER NOT NULL, `month_index` INTEGER NOT NULL, `days` INTEGER NOT NULL, " +
+                "PRIMARY KEY(`task_id`, `month_index`))");
+        db.execSQL("CREATE INDEX IF NOT EXISTS `index_completion_month_month_index` ON `completion_month` (`month_index`)");
+        db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `tasks_fts` " +
+                "USING FTS4(`title` TEXT, `description` TEXT, content=`tasks`)");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_BEFORE_UPDATE " +
+                "BEFORE UPDATE ON `tasks` BEGIN DELETE FROM `tasks_fts` WHERE `docid`=OLD.`rowid`; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_BEFORE_DELETE " +
+                "BEFORE DELETE ON `tasks` BEGIN DELETE FROM `tasks_fts` WHERE `docid`=OLD.`rowid`; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_AFTER_UPDATE " +
+                "AFTER UPDATE ON `tasks` BEGIN INSERT INTO `tasks_fts`(`docid`, `title`, `description`) " +
+                "VALUES (NEW.`rowid`, NEW.`title`, NEW.`description`); END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_AFTER_INSERT " +
+                "AFTER INSERT ON `tasks` BEGIN INSERT INTO `tasks_fts`(`docid`, `title`, `description`) " +
+                "VALUES (NEW.`rowid`, NEW.`title`, NEW.`description`); END");
+    }
+}
@@ -2,11 +2,14 @@ package com.prajwaldarekar.dailytask.activities;
 
 import android.Manifest;
 import android.app.AlarmManager;
+import android.content.Context;
 import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.os.Build;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.provider.Settings;
 import android.widget.Toast;
 
@@ -15,22 +18,104 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 
+import com.google.firebase.crashlytics.FirebaseCrashlytics;
 import com.prajwaldarekar.dailytask.MainActivity;
 import com.prajwaldarekar.dailytask.R;
+import com.prajwaldarekar.dailytask.database.AppDatabase;
+import com.prajwaldarekar.dailytask.database.TaskStore;
+import com.prajwaldarekar.dailytask.utils.NotificationUtils;
 
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🚀 Shows the splash while the app warms up in the background: the database is opened
+ * (running any migration), the task store loads the rows the Tasks tab shows first, and
+ * date formatters and the notification channel are primed. MainActivity opens as soon as
+ * the permission flow is over and warm-up is done, waiting at most {@link #MAX_WARMUP_MILLIS} for the latter.
+ */
 public class SplashActivity extends AppCompatActivity {
 
     private static final int PERMISSION_REQUEST_CODE = 1001;
-    private static final long SPLASH_DELAY = 2000; // 2 seconds
+
+    // Upper bound on the splash: a slow migration keeps running, MainActivity just queues behind it
+    private static final long MAX_WARMUP_MILLIS = 1500;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable warmupTimeout = () -> {
+        FirebaseCrashlytics.getInstance().log("Startup warm-up still running after " + MAX_WARMUP_MILLIS + "ms");
+        warmupDone = true;
+        maybeProceedToMain();
+    };
+
+    // ⏱ Startup state, main thread only
+    private long createdAt;
+    private boolean warmupDone;
+    private boolean permissionsDone;
+    private boolean proceeded;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        createdAt = SystemClock.elapsedRealtime();
         setContentView(R.layout.activity_splash);
 
+        startWarmup();
         checkAndRequestNotificationPermission();
     }
 
+    @Override
+    protected void onDestroy() {
+        mainHandler.removeCallbacks(warmupTimeout);
+        super.onDestroy();
+    }
+
+    private void startWarmup() {
+        mainHandler.postDelayed(warmupTimeout, MAX_WARMUP_MILLIS);
+
+        Context appContext = getApplicationContext();
+        new Thread(() -> {
+            long start = SystemClock.elapsedRealtime();
+            long dbOpenMs = -1, tasksMs = -1, formattersMs = -1, channelMs = -1;
+            try {
+                // 🗄 Opening the database runs pending migrations once, here instead of on the first query
+                AppDatabase.getInstance(appContext).getOpenHelper().getWritableDatabase();
+                long dbOpened = SystemClock.elapsedRealtime();
+                dbOpenMs = dbOpened - start;
+
+                // 🗂 The Tasks tab is filtered from the store, so its first load is the first "today" query
+                TaskStore taskStore = TaskStore.getInstance(appContext);
+                taskStore.load();
+                taskStore.awaitLoaded(MAX_WARMUP_MILLIS, TimeUnit.MILLISECONDS);
+                long tasksLoaded = SystemClock.elapsedRealtime();
+                tasksMs = tasksLoaded - dbOpened;
+
+                // 🗓 Locale data behind the list's and the Calendar's formatters
+                new SimpleDateFormat("dd MMM yyyy | hh:mm a", Locale.getDefault()).format(new Date());
+                DateTimeFormatter.ofPattern("MMMM yyyy", Locale.getDefault()).format(LocalDate.now());
+                long formattersPrimed = SystemClock.elapsedRealtime();
+                formattersMs = formattersPrimed - tasksLoaded;
+
+                NotificationUtils.createNotificationChannel(appContext);
+                channelMs = SystemClock.elapsedRealtime() - formattersPrimed;
+            } catch (Exception e) {
+                FirebaseCrashlytics.getInstance().recordException(e);
+            }
+
+            FirebaseCrashlytics.getInstance().log("Startup warm-up: db open " + dbOpenMs + "ms, tasks "
+                    + tasksMs + "ms, formatters " + formattersMs + "ms, channel " + channelMs + "ms");
+            mainHandler.post(() -> {
+                mainHandler.removeCallbacks(warmupTimeout);
+                warmupDone = true;
+                maybeProceedToMain();
+            });
+        }, "startup-warmup").start();
+    }
+
     private void checkAndRequestNotificationPermission() {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
             if (ContextCompat.checkSelfPermission(this, Manifest.permission.POST_NOTIFICATIONS)
@@ -65,11 +150,20 @@ public class SplashActivity extends AppCompatActivity {
         proceedToMain(); // ✅ All permissions granted
     }
 
+    // ✅ Permission flow is over; MainActivity opens once warm-up is done too
     private void proceedToMain() {
-        new Handler().postDelayed(() -> {
-            startActivity(new Intent(SplashActivity.this, MainActivity.class));
-            finish();
-        }, SPLASH_DELAY);
+        permissionsDone = true;
+        maybeProceedToMain();
+    }
+
+    private void maybeProceedToMain() {
+        if (proceeded || !warmupDone || !permissionsDone || isFinishing() || isDestroyed()) return;
+        proceeded = true;
+
+        FirebaseCrashlytics.getInstance().log("Startup: splash shown for "
+                + (SystemClock.elapsedRealtime() - createdAt) + "ms");
+        startActivity(new Intent(SplashActivity.this, MainActivity.class));
+        finish();
     }
 
     @Override
@@ -0,0 +1,81 @@
+package com.prajwaldarekar.dailytask.adapters;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
+
+import com.prajwaldarekar.dailytask.R;
+import com.prajwaldarekar.dailytask.models.Task;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Paged variant of {@link TaskAdapter}: rows are loaded from Room a page at a time,
+ * already sorted by the database, so only pages near the viewport are bound.
+ */
+public class PagedTaskAdapter extends PagingDataAdapter<Task, TaskViewHolder> {
+
+    private TaskAdapter.OnTaskClickListener taskClickListener;
+    private TaskAdapter.OnTaskCheckChangedListener checkChangedListener;
+    private TaskAdapter.OnTaskLongClickListener longClickListener;
+    private Set<Integer> selectedIds = Collections.emptySet();
+
+    public PagedTaskAdapter() {
+        super(new TaskDiffCallback());
+    }
+
+    public void setOnTaskClickListener(TaskAdapter.OnTaskClickListener listener) {
+        this.taskClickListener = listener;
+    }
+
+    public void setOnTaskCheckChangedListener(TaskAdapter.OnTaskCheckChangedListener listener) {
+        this.checkChangedListener = listener;
+    }
+
+    public void setOnTaskLongClickListener(TaskAdapter.OnTaskLongClickListener listener) {
+        this.longClickListener = listener;
+    }
+
+    /**
+     * Highlights the rows with the given task ids. The set is not copied and must not change afterwards.
+     */
+    public void setSelectedIds(Set<Integer> ids) {
+        selectedIds = ids != null ? ids : Collections.emptySet();
+        notifyItemRangeChanged(0, getItemCount(), TaskAdapter.PAYLOAD_SELECTION);
+    }
+
+    public Task getTaskAtPosition(int position) {
+        return peek(position);
+    }
+
+    @NonNull
+    @Override
+    public TaskViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View itemView = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_task, parent, false);
+        return new TaskViewHolder(itemView);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull TaskViewHolder holder, int position) {
+        Task task = getItem(position);
+        if (task != null) {
+            holder.bind(task, taskClickListener, checkChangedListener, longClickListener,
+                    selectedIds.contains(task.getId()));
+        }
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull TaskViewHolder holder, int position, @NonNull List<Object> payloads) {
+        Task task = peek(position); // peek: a highlight refresh must not trigger page loads
+        if (payloads.contains(TaskAdapter.PAYLOAD_SELECTION) && payloads.size() == 1 && task != null) {
+            holder.bindSelection(selectedIds.contains(task.getId()));
+        } else {
+            onBindViewHolder(holder, position);
+        }
+    }
+}
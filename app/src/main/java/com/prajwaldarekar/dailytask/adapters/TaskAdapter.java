@@ -1,40 +1,39 @@
 package com.prajwaldarekar.dailytask.adapters;
 
 import android.content.Context;
-import android.graphics.Paint;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.CheckBox;
-import android.widget.TextView;
 
 import androidx.annotation.NonNull;
-import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.AsyncListDiffer;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.prajwaldarekar.dailytask.R;
 import com.prajwaldarekar.dailytask.models.Task;
-import com.prajwaldarekar.dailytask.models.TaskType;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
+import java.util.Set;
 
-public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder> {
+public class TaskAdapter extends RecyclerView.Adapter<TaskViewHolder> {
 
-    private final List<Task> taskList = new ArrayList<>();
+    // Rebind payload that only refreshes the selection highlight
+    static final Object PAYLOAD_SELECTION = new Object();
+
+    // Diffs are computed on a background thread; only changed rows rebind
+    private final AsyncListDiffer<Task> differ = new AsyncListDiffer<>(this, new TaskDiffCallback());
     private final Context context;
 
     private OnTaskClickListener taskClickListener;
     private OnTaskCheckChangedListener checkChangedListener;
-
-    private static final SimpleDateFormat dateTimeFormat =
-            new SimpleDateFormat("dd MMM yyyy | hh:mm a", Locale.getDefault());
+    private OnTaskLongClickListener longClickListener;
+    private Set<Integer> selectedIds = Collections.emptySet();
 
     public TaskAdapter(Context context) {
         this.context = context;
+        setHasStableIds(true);
     }
 
     public interface OnTaskClickListener {
@@ -45,6 +44,10 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
         void onCheckChanged(Task task, boolean isChecked);
     }
 
+    public interface OnTaskLongClickListener {
+        void onTaskLongClick(Task task);
+    }
+
     public void setOnTaskClickListener(OnTaskClickListener listener) {
         this.taskClickListener = listener;
     }
@@ -53,16 +56,28 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
         this.checkChangedListener = listener;
     }
 
+    public void setOnTaskLongClickListener(OnTaskLongClickListener listener) {
+        this.longClickListener = listener;
+    }
+
+    /**
+     * Highlights the rows with the given task ids. The set is not copied and must not change afterwards.
+     */
+    public void setSelectedIds(Set<Integer> ids) {
+        selectedIds = ids != null ? ids : Collections.emptySet();
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+    }
+
+    /**
+     * Submits a new list. Items must not be edited in place afterwards,
+     * otherwise the diff cannot see the change.
+     */
     public void setTasks(List<Task> tasks) {
-        taskList.clear();
-        if (tasks != null) {
-            taskList.addAll(tasks);
-        }
-        notifyDataSetChanged();
+        differ.submitList(tasks != null ? new ArrayList<>(tasks) : null);
     }
 
     public Task getTaskAtPosition(int position) {
-        return taskList.get(position);
+        return differ.getCurrentList().get(position);
     }
 
     @NonNull
@@ -74,91 +89,27 @@ public class TaskAdapter extends RecyclerView.Adapter<TaskAdapter.TaskViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull TaskViewHolder holder, int position) {
-        holder.bind(taskList.get(position));
+        Task task = differ.getCurrentList().get(position);
+        holder.bind(task, taskClickListener, checkChangedListener, longClickListener,
+                selectedIds.contains(task.getId()));
     }
 
     @Override
-    public int getItemCount() {
-        return taskList.size();
-    }
-
-    class TaskViewHolder extends RecyclerView.ViewHolder {
-        final TextView textTitle, textType, textDate;
-        final CheckBox checkBox;
-        final View viewColorBadge;
-
-        public TaskViewHolder(@NonNull View itemView) {
-            super(itemView);
-            textTitle = itemView.findViewById(R.id.textViewTitle);
-            textType = itemView.findViewById(R.id.textViewType);
-            textDate = itemView.findViewById(R.id.textViewDateTime);
-            checkBox = itemView.findViewById(R.id.checkBoxDone);
-            viewColorBadge = itemView.findViewById(R.id.viewColorBadge);
+    public void onBindViewHolder(@NonNull TaskViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.contains(PAYLOAD_SELECTION) && payloads.size() == 1) {
+            holder.bindSelection(selectedIds.contains(differ.getCurrentList().get(position).getId()));
+        } else {
+            onBindViewHolder(holder, position);
         }
+    }
 
-        public void bind(Task task) {
-            textTitle.setText(task.getTitle());
-
-            // 🔷 Type label + Repeat info
-            String typeLabel = task.getType().name();
-            if (task.getType() == TaskType.REMINDER && task.getRepeatMode() != null) {
-                typeLabel += " | " + task.getRepeatMode().name();
-            }
-            textType.setText(typeLabel);
-
-            // 🔶 Date display
-            Date taskDate = task.getDisplayDate();
-            boolean isMissedReminder = false;
-
-            if (taskDate != null) {
-                textDate.setText(dateTimeFormat.format(taskDate));
-                if (task.getType() == TaskType.REMINDER && !task.isCompleted()) {
-                    isMissedReminder = taskDate.before(new Date());
-                }
-            } else {
-                textDate.setText("No Date");
-            }
-
-            // 🎨 Color badge logic
-            int colorRes = R.color.green;
-            switch (task.getType()) {
-                case TASK:
-                    colorRes = R.color.purple_500;
-                    break;
-                case NOTE:
-                    colorRes = R.color.blue;
-                    break;
-                case REMINDER:
-                    colorRes = isMissedReminder ? R.color.red : R.color.green;
-                    break;
-            }
-            viewColorBadge.setBackgroundColor(ContextCompat.getColor(context, colorRes));
-
-            // ✅ Checkbox and strikethrough
-            checkBox.setOnCheckedChangeListener(null);
-            checkBox.setChecked(task.isCompleted());
-            applyStrikeThrough(task.isCompleted());
-
-            checkBox.setOnCheckedChangeListener((buttonView, isChecked) -> {
-                if (checkChangedListener != null && isChecked != task.isCompleted()) {
-                    checkChangedListener.onCheckChanged(task, isChecked);
-                }
-            });
-
-            // 🖱️ Click listener
-            itemView.setOnClickListener(v -> {
-                if (taskClickListener != null) {
-                    taskClickListener.onTaskClick(task);
-                }
-            });
-        }
+    @Override
+    public long getItemId(int position) {
+        return differ.getCurrentList().get(position).getId();
+    }
 
-        private void applyStrikeThrough(boolean isCompleted) {
-            for (TextView tv : new TextView[]{textTitle, textType, textDate}) {
-                tv.setPaintFlags(isCompleted
-                        ? tv.getPaintFlags() | Paint.STRIKE_THRU_TEXT_FLAG
-                        : tv.getPaintFlags() & ~Paint.STRIKE_THRU_TEXT_FLAG);
-            }
-        }
+    @Override
+    public int getItemCount() {
+        return differ.getCurrentList().size();
     }
 }
@@ -0,0 +1,30 @@
+package com.prajwaldarekar.dailytask.adapters;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.prajwaldarekar.dailytask.models.Task;
+
+import java.util.Objects;
+
+/**
+ * Tasks are the same item when their ids match, and have the same contents when
+ * every field rendered by {@link TaskViewHolder} is equal.
+ */
+public class TaskDiffCallback extends DiffUtil.ItemCallback<Task> {
+
+    @Override
+    public boolean areItemsTheSame(@NonNull Task oldItem, @NonNull Task newItem) {
+        return oldItem.getId() == newItem.getId();
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull Task oldItem, @NonNull Task newItem) {
+        return Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                && oldItem.getType() == newItem.getType()
+                && oldItem.getRepeatMode() == newItem.getRepeatMode()
+                && Objects.equals(oldItem.isCompleted(), newItem.isCompleted())
+                && Objects.equals(oldItem.getDisplayDate(), newItem.getDisplayDate())
+                && oldItem.getStreak() == newItem.getStreak();
+    }
+}
@@ -0,0 +1,144 @@
+package com.prajwaldarekar.dailytask.adapters;
+
+import android.content.Context;
+import android.graphics.Paint;
+import android.view.View;
+import android.widget.CheckBox;
+import android.widget.TextView;
+
+import android.content.res.ColorStateList;
+
+import androidx.annotation.NonNull;
+import androidx.cardview.widget.CardView;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.prajwaldarekar.dailytask.R;
+import com.prajwaldarekar.dailytask.models.Task;
+import com.prajwaldarekar.dailytask.models.TaskType;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Row view for a task, shared by {@link TaskAdapter} and {@link PagedTaskAdapter}.
+ */
+public class TaskViewHolder extends RecyclerView.ViewHolder {
+
+    private static final SimpleDateFormat dateTimeFormat =
+            new SimpleDateFormat("dd MMM yyyy | hh:mm a", Locale.getDefault());
+
+    final TextView textTitle, textType, textDate, textStreak;
+    final CheckBox checkBox;
+    final View viewColorBadge;
+    private final ColorStateList defaultCardColor;
+
+    public TaskViewHolder(@NonNull View itemView) {
+        super(itemView);
+        textTitle = itemView.findViewById(R.id.textViewTitle);
+        textType = itemView.findViewById(R.id.textViewType);
+        textDate = itemView.findViewById(R.id.textViewDateTime);
+        textStreak = itemView.findViewById(R.id.textViewStreak);
+        checkBox = itemView.findViewById(R.id.checkBoxDone);
+        viewColorBadge = itemView.findViewById(R.id.viewColorBadge);
+        defaultCardColor = ((CardView) itemView).getCardBackgroundColor();
+    }
+
+    public void bind(Task task,
+                     TaskAdapter.OnTaskClickListener taskClickListener,
+                     TaskAdapter.OnTaskCheckChangedListener checkChangedListener,
+                     TaskAdapter.OnTaskLongClickListener longClickListener,
+                     boolean selected) {
+        Context context = itemView.getContext();
+        textTitle.setText(task.getTitle());
+
+        // 🔷 Type label + Repeat info
+        String typeLabel = task.getType().name();
+        if (task.getType() == TaskType.REMINDER && task.getRepeatMode() != null) {
+            typeLabel += " | " + task.getRepeatMode().name();
+        }
+        textType.setText(typeLabel);
+
+        // 🔶 Date display
+        Date taskDate = task.getDisplayDate();
+        boolean isMissedReminder = false;
+
+        if (taskDate != null) {
+            textDate.setText(dateTimeFormat.format(taskDate));
+            if (task.getType() == TaskType.REMINDER && !task.isCompleted()) {
+                isMissedReminder = taskDate.before(new Date());
+            }
+        } else {
+            textDate.setText("No Date");
+        }
+
+        // 🎨 Color badge logic
+        int colorRes = R.color.green;
+        switch (task.getType()) {
+            case TASK:
+                colorRes = R.color.purple_500;
+                break;
+            case NOTE:
+                colorRes = R.color.blue;
+                break;
+            case REMINDER:
+                colorRes = isMissedReminder ? R.color.red : R.color.green;
+                break;
+        }
+        viewColorBadge.setBackgroundColor(ContextCompat.getColor(context, colorRes));
+
+        // 🔥 Streak badge, from two completed occurrences in a row
+        if (task.getStreak() >= 2) {
+            textStreak.setText(context.getString(R.string.streak_badge, task.getStreak()));
+            textStreak.setVisibility(View.VISIBLE);
+        } else {
+            textStreak.setVisibility(View.GONE);
+        }
+
+        // ✅ Checkbox and strikethrough
+        checkBox.setOnCheckedChangeListener(null);
+        checkBox.setChecked(task.isCompleted());
+        applyStrikeThrough(task.isCompleted());
+
+        checkBox.setOnCheckedChangeListener((buttonView, isChecked) -> {
+            if (checkChangedListener != null && isChecked != task.isCompleted()) {
+                checkChangedListener.onCheckChanged(task, isChecked);
+            }
+        });
+
+        // 🖱️ Click listener
+        itemView.setOnClickListener(v -> {
+            if (taskClickListener != null) {
+                taskClickListener.onTaskClick(task);
+            }
+        });
+
+        // ☑️ Long press starts / extends multi-select
+        itemView.setOnLongClickListener(v -> {
+            if (longClickListener == null) return false;
+            longClickListener.onTaskLongClick(task);
+            return true;
+        });
+
+        bindSelection(selected);
+    }
+
+    /** Highlights the row while it is part of the multi-selection. */
+    public void bindSelection(boolean selected) {
+        CardView card = (CardView) itemView;
+        if (selected) {
+            card.setCardBackgroundColor(ContextCompat.getColor(itemView.getContext(), R.color.selected_task));
+        } else {
+            card.setCardBackgroundColor(defaultCardColor);
+        }
+    }
+
+    private void applyStrikeThrough(boolean isCompleted) {
+        for (TextView tv : new TextView[]{textTitle, textType, textDate}) {
+            tv.setPaintFlags(isCompleted
+                    ? tv.getPaintFlags() | Paint.STRIKE_THRU_TEXT_FLAG
+                    : tv.getPaintFlags() & ~Paint.STRIKE_THRU_TEXT_FLAG);
+        }
+    }
+}
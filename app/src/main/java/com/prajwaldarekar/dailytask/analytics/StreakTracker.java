@@ -0,0 +1,185 @@
+package com.prajwaldarekar.dailytask.analytics;
+
+import android.database.Cursor;
+
+import com.prajwaldarekar.dailytask.database.AppDatabase;
+import com.prajwaldarekar.dailytask.database.CompletionMonthDao;
+import com.prajwaldarekar.dailytask.database.TaskDao;
+import com.prajwaldarekar.dailytask.database.TaskStatsDao;
+import com.prajwaldarekar.dailytask.models.CompletionMonth;
+import com.prajwaldarekar.dailytask.models.Task;
+import com.prajwaldarekar.dailytask.models.TaskStats;
+import com.prajwaldarekar.dailytask.recurrence.EpochDays;
+import com.prajwaldarekar.dailytask.recurrence.RecurrenceRule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 🔥 Keeps the task_stats table (streaks and completion totals) in step with the completion
+ * history in completion_month. task_completion only keeps completed_at timestamps for the
+ * last 31 days and is pruned after that, so it is never read here.
+ *
+ * Streaks count occurrences of the task's {@link RecurrenceRule}: a completion on any day
+ * counts for the occurrence on or before it, so a weekly reminder ticked a day late still
+ * extends its streak. Completing the latest occurrence, the everyday case, updates the row
+ * in O(1) from the row itself; un-marking or back-filling an older day recounts that one
+ * task from its completion_month bitmaps (one row per month of history).
+ *
+ * Every method runs on the database writer thread, inside the transaction that changed
+ * the completions, so statistics and completions always commit together.
+ */
+public final class StreakTracker {
+
+    private final TaskDao taskDao;
+    private final CompletionMonthDao monthDao;
+    private final TaskStatsDao statsDao;
+
+    public StreakTracker(AppDatabase database) {
+        taskDao = database.taskDao();
+        monthDao = database.completionMonthDao();
+        statsDao = database.taskStatsDao();
+    }
+
+    /**
+     * A task that was not completed on {@code date} (epoch millis at 00:00) now is.
+     */
+    public void onCompleted(long taskId, long date) {
+        Task task = taskDao.getTaskById(taskId);
+        if (task == null) return;
+
+        RecurrenceRule rule = RecurrenceRule.compile(task);
+        int period = periodOf(rule, EpochDays.fromMillis(date));
+        TaskStats stats = statsDao.getStats(taskId);
+
+        if (stats == null) {
+            stats = new TaskStats(taskId, 1, 1, 1, period);
+        } else if (period > stats.getLastCompletedDay()) {
+            int streak = previousPeriod(rule, period) == stats.getLastCompletedDay()
+                    ? stats.getCurrentStreak() + 1
+                    : 1;
+            stats.setCurrentStreak(streak);
+            stats.setLongestStreak(Math.max(stats.getLongestStreak(), streak));
+            stats.setTotalCompletions(stats.getTotalCompletions() + 1);
+            stats.setLastCompletedDay(period);
+        } else if (period == stats.getLastCompletedDay()) {
+            stats.setTotalCompletions(stats.getTotalCompletions() + 1); // Same occurrence again
+        } else {
+            rebuild(taskId); // Back-filled an older occurrence
+            return;
+        }
+        statsDao.upsert(stats);
+    }
+
+    /**
+     * A task that was completed on {@code date} no longer is.
+     */
+    public void onUncompleted(long taskId, long date) {
+        rebuild(taskId);
+    }
+
+    /**
+     * The task's date or repeat mode may have changed: recount it if it has statistics.
+     */
+    public void onTaskChanged(long taskId) {
+        if (statsDao.getStats(taskId) != null) {
+            rebuild(taskId);
+        }
+    }
+
+    /**
+     * All completions of the task were removed.
+     */
+    public void onCompletionsCleared(long taskId) {
+        statsDao.delete(taskId);
+    }
+
+    /**
+     * Recounts one task from its completion history.
+     */
+    public void rebuild(long taskId) {
+        Task task = taskDao.getTaskById(taskId);
+        List<CompletionMonth> history = monthDao.getHistory(taskId);
+        if (task == null || history.isEmpty()) {
+            statsDao.delete(taskId);
+            return;
+        }
+        statsDao.upsert(count(taskId, RecurrenceRule.compile(task), history));
+    }
+
+    /**
+     * Repair path: recounts every task from completion_month in one streaming pass.
+     */
+    public void rebuildAll() {
+        statsDao.deleteAll();
+
+        try (Cursor cursor = monthDao.getAllHistory()) {
+            long taskId = -1;
+            List<CompletionMonth> history = new ArrayList<>();
+            while (cursor.moveToNext()) {
+                long rowTaskId = cursor.getLong(0);
+                if (rowTaskId != taskId) {
+                    flush(taskId, history);
+                    taskId = rowTaskId;
+                    history.clear();
+                }
+                history.add(new CompletionMonth(rowTaskId, cursor.getInt(1), cursor.getInt(2)));
+            }
+            flush(taskId, history);
+        }
+    }
+
+    /**
+     * Streak as of {@code today}: 0 once an occurrence after the last completed one has
+     * passed unfinished. Today's own occurrence does not break it until the day is over.
+     */
+    public static int currentStreak(TaskStats stats, RecurrenceRule rule, int today) {
+        if (stats == null) return 0;
+
+        int next = rule.nextOnOrAfter(stats.getLastCompletedDay() + 1);
+        return next < today ? 0 : stats.getCurrentStreak();
+    }
+
+    // Months must be sorted oldest first
+    static TaskStats count(long taskId, RecurrenceRule rule, List<CompletionMonth> history) {
+        int[] days = new int[31];
+        int current = 0;
+        int longest = 0;
+        int total = 0;
+        int last = RecurrenceRule.NO_OCCURRENCE;
+        for (CompletionMonth month : history) {
+            int n = month.completedDays(days, 0);
+            total += n;
+            for (int i = 0; i < n; i++) {
+                int period = periodOf(rule, days[i]);
+                if (period != last) {
+                    current = previousPeriod(rule, period) == last ? current + 1 : 1;
+                    longest = Math.max(longest, current);
+                    last = period;
+                }
+            }
+        }
+        return new TaskStats(taskId, current, longest, total, last);
+    }
+
+    // The occurrence a completion on `day` counts for; early completions count for the first one
+    static int periodOf(RecurrenceRule rule, int day) {
+        int occurrence = rule.previousOnOrBefore(day);
+        if (occurrence != RecurrenceRule.NO_OCCURRENCE) return occurrence;
+        return rule.hasDate() ? rule.getAnchorDay() : day;
+    }
+
+    // Occurrence right before `period`, or NO_OCCURRENCE for the first one
+    static int previousPeriod(RecurrenceRule rule, int period) {
+        return rule.previousOnOrBefore(period - 1);
+    }
+
+    private void flush(long taskId, List<CompletionMonth> history) {
+        if (history.isEmpty()) return;
+
+        Task task = taskDao.getTaskById(taskId);
+        if (task != null) {
+            statsDao.upsert(count(taskId, RecurrenceRule.compile(task), history));
+        }
+    }
+}
@@ -10,25 +10,39 @@ import androidx.room.TypeConverters;
 import androidx.room.migration.Migration;
 import androidx.sqlite.db.SupportSQLiteDatabase;
 
+import com.prajwaldarekar.dailytask.analytics.StreakTracker;
+import com.prajwaldarekar.dailytask.models.CompletionMonth;
+import com.prajwaldarekar.dailytask.models.ReminderQueueEntry;
 import com.prajwaldarekar.dailytask.models.Task;
 import com.prajwaldarekar.dailytask.models.TaskCompletion;
-import com.prajwaldarekar.dailytask.utils.Converters;
+import com.prajwaldarekar.dailytask.models.TaskFts;
+import com.prajwaldarekar.dailytask.models.TaskStats;
 
 @Database(
         entities = {
                 Task.class,
-                TaskCompletion.class
+                TaskCompletion.class,
+                ReminderQueueEntry.class,
+                TaskFts.class,
+                TaskStats.class,
+                CompletionMonth.class
         },
-        version = 6, // ✅ Current DB version
-        exportSchema = false
+        version = 13, // ✅ Current DB version
+        exportSchema = true    // Schemas under app/schemas back the migration tests
 )
 @TypeConverters(Converters.class)
 public abstract class AppDatabase extends RoomDatabase {
 
     private static volatile AppDatabase INSTANCE;
 
+    // Set by a migration that adds task_stats; the first open then counts them from history
+    private static volatile boolean statsRebuildPending;
+
     public abstract TaskDao taskDao();
     public abstract TaskCompletionDao taskCompletionDao();
+    public abstract ReminderQueueDao reminderQueueDao();
+    public abstract TaskStatsDao taskStatsDao();
+    public abstract CompletionMonthDao completionMonthDao();
 
     public static AppDatabase getInstance(Context context) {
         if (INSTANCE == null) {
@@ -39,7 +53,18 @@ public abstract class AppDatabase extends RoomDatabase {
                                     AppDatabase.class,
                                     "daily_task_db"
                             )
-                            .addMigrations(MIGRATION_5_6) // ✅ Add migration here
+                            .addMigrations(MIGRATION_5_6, MIGRATION_6_7, MIGRATION_7_8, MIGRATION_8_9, MIGRATION_9_10, MIGRATION_10_11, MIGRATION_11_12,
+                                    MIGRATION_12_13) // ✅ Add migration here
+                            .addCallback(new Callback() {
+                                @Override
+                                public void onOpen(@NonNull SupportSQLiteDatabase db) {
+                                    INSTANCE.pruneCompletionTimestamps(); // Opening is lazy, so INSTANCE is set
+                                    if (statsRebuildPending) {
+                                        statsRebuildPending = false;
+                                        INSTANCE.rebuildStats();
+                                    }
+                                }
+                            })
                             .build();
                 }
             }
@@ -58,4 +83,240 @@ public abstract class AppDatabase extends RoomDatabase {
             database.execSQL("ALTER TABLE task_completion ADD COLUMN completed_at INTEGER");
         }
     };
+
+    /**
+     * ✅ Migration from version 6 to 7:
+     * Drops duplicate completions (keeping the latest row per task/day) and adds a
+     * unique (task_id, completion_date) index plus a completion_date index.
+     */
+    private static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("DELETE FROM task_completion WHERE id NOT IN " +
+                    "(SELECT MAX(id) FROM task_completion GROUP BY task_id, completion_date)");
+            database.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_task_completion_task_id_completion_date` " +
+                    "ON `task_completion` (`task_id`, `completion_date`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_task_completion_completion_date` " +
+                    "ON `task_completion` (`completion_date`)");
+        }
+    };
+
+    /**
+     * ✅ Migration from version 7 to 8:
+     * Adds the `reminder_queue` table backing the single-alarm reminder scheduler.
+     */
+    private static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `reminder_queue` (" +
+                    "`task_id` INTEGER NOT NULL, " +
+                    "`trigger_at` INTEGER NOT NULL, " +
+                    "`title` TEXT, " +
+                    "`repeat_mode` TEXT, " +
+                    "`created_at` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`task_id`))");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_reminder_queue_trigger_at` " +
+                    "ON `reminder_queue` (`trigger_at`)");
+        }
+    };
+
+    /**
+     * ✅ Migration from version 8 to 9:
+     * Adds the `tasks_fts` full-text index over task titles and descriptions,
+     * its content-sync triggers, and fills it from the existing tasks.
+     */
+    private static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `tasks_fts` " +
+                    "USING FTS4(`title` TEXT, `description` TEXT, content=`tasks`)");
+            createTaskFtsTriggers(database);
+            database.execSQL("INSERT INTO `tasks_fts`(`tasks_fts`) VALUES ('rebuild')");
+        }
+    };
+
+    /**
+     * ✅ Migration from version 9 to 10:
+     * Adds the `task_stats` table. Streaks depend on each task's recurrence, so the rows are
+     * counted in Java on the database thread right after the database opens.
+     */
+    private static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `task_stats` (" +
+                    "`task_id` INTEGER NOT NULL, " +
+                    "`current_streak` INTEGER NOT NULL, " +
+                    "`longest_streak` INTEGER NOT NULL, " +
+                    "`total_completions` INTEGER NOT NULL, " +
+                    "`last_completed_day` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`task_id`))");
+            statsRebuildPending = true;
+        }
+    };
+
+    /**
+     * ✅ Migration from version 10 to 11:
+     * Adds the `completion_month` bitmaps and packs every completed day of `task_completion`
+     * into them. Days are derived in local time, matching how completion dates were written.
+     * Rows that only recorded "not completed" carry no information and are dropped; old
+     * timestamp rows are pruned on open.
+     */
+    private static final Migration MIGRATION_10_11 = new Migration(10, 11) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `completion_month` (" +
+                    "`task_id` INTEGER NOT NULL, " +
+                    "`month_index` INTEGER NOT NULL, " +
+                    "`days` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`task_id`, `month_index`))");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_completion_month_month_index` " +
+                    "ON `completion_month` (`month_index`)");
+
+            // One bit per distinct day; summing distinct bits is the same as OR-ing them
+            database.execSQL("INSERT OR REPLACE INTO completion_month (task_id, month_index, days) " +
+                    "SELECT task_id, month_index, SUM(1 << (day_of_month - 1)) FROM (" +
+                    "SELECT DISTINCT task_id, " +
+                    "CAST(strftime('%Y', completion_date / 1000, 'unixepoch', 'localtime') AS INTEGER) * 12 " +
+                    "+ CAST(strftime('%m', completion_date / 1000, 'unixepoch', 'localtime') AS INTEGER) - 1 AS month_index, " +
+                    "CAST(strftime('%d', completion_date / 1000, 'unixepoch', 'localtime') AS INTEGER) AS day_of_month " +
+                    "FROM task_completion WHERE is_completed = 1) " +
+                    "GROUP BY task_id, month_index");
+            database.execSQL("DELETE FROM task_completion WHERE is_completed = 0");
+        }
+    };
+
+    /**
+     * ✅ Migration from version 11 to 12:
+     * Rebuilds `tasks` with primitive temporal columns: `date`/`time` millis become a local
+     * `epoch_day` and `minute_of_day` (the reminder's wall-clock minute, as the scheduler
+     * read it), and `isCompleted` and `repeatMode` become non-null (NONE for a missing mode, as
+     * {@link Task#getRepeatMode()} reads it). Rows without a date fall back to the
+     * day they were created. Ids and the AUTOINCREMENT counter carry over; the FTS triggers
+     * are dropped with the old table, so they are recreated and the index is rebuilt.
+     */
+    static final Migration MIGRATION_11_12 = new Migration(11, 12) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `tasks_new` (" +
+                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`title` TEXT, " +
+                    "`description` TEXT, " +
+                    "`epoch_day` INTEGER NOT NULL, " +
+                    "`minute_of_day` INTEGER NOT NULL, " +
+                    "`isCompleted` INTEGER NOT NULL, " +
+                    "`type` TEXT, " +
+                    "`repeatMode` INTEGER NOT NULL, " +
+                    "`createdAt` INTEGER NOT NULL)");
+            database.execSQL("INSERT INTO tasks_new " +
+                    "(id, title, description, epoch_day, minute_of_day, isCompleted, type, repeatMode, createdAt) " +
+                    "SELECT id, title, description, " +
+                    "CAST(ROUND(julianday(IFNULL(date, createdAt) / 1000, 'unixepoch', 'localtime', 'start of day') " +
+                    "- 2440587.5) AS INTEGER), " +
+                    "CAST(strftime('%H', IFNULL(time, IFNULL(date, createdAt)) / 1000, 'unixepoch', 'localtime') AS INTEGER) * 60 " +
+                    "+ CAST(strftime('%M', IFNULL(time, IFNULL(date, createdAt)) / 1000, 'unixepoch', 'localtime') AS INTEGER), " +
+                    "IFNULL(isCompleted, 0), type, IFNULL(repeatMode, 0), createdAt FROM tasks");
+
+            // Keep the id counter, so ids of deleted tasks are never handed out again
+            database.execSQL("DELETE FROM sqlite_sequence WHERE name = 'tasks_new'");
+            database.execSQL("UPDATE sqlite_sequence SET name = 'tasks_new' WHERE name = 'tasks'");
+
+            database.execSQL("DROP TABLE tasks");
+            database.execSQL("ALTER TABLE tasks_new RENAME TO tasks");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_epoch_day_minute_of_day` " +
+                    "ON `tasks` (`epoch_day`, `minute_of_day`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_isCompleted_epoch_day` " +
+                    "ON `tasks` (`isCompleted`, `epoch_day`)");
+
+            createTaskFtsTriggers(database);
+            database.execSQL("INSERT INTO `tasks_fts`(`tasks_fts`) VALUES ('rebuild')");
+        }
+    };
+
+    /**
+     * ✅ Migration from version 12 to 13:
+     * Moves every enum column to the integer codes of {@link Converters}. `tasks.type` held
+     * TaskType names; `repeatMode` already held ordinals, which equal the codes. The queue's
+     * `repeat_mode` held RepeatMode names. Both tables are rebuilt because the declared
+     * column types change; rowids and the AUTOINCREMENT counter carry over, so the FTS
+     * index stays valid and only its triggers need recreating.
+     */
+    static final Migration MIGRATION_12_13 = new Migration(12, 13) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `tasks_new` (" +
+                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "`title` TEXT, " +
+                    "`description` TEXT, " +
+                    "`epoch_day` INTEGER NOT NULL, " +
+                    "`minute_of_day` INTEGER NOT NULL, " +
+                    "`isCompleted` INTEGER NOT NULL, " +
+                    "`type` INTEGER NOT NULL, " +
+                    "`repeatMode` INTEGER NOT NULL, " +
+                    "`createdAt` INTEGER NOT NULL)");
+            database.execSQL("INSERT INTO tasks_new " +
+                    "(id, title, description, epoch_day, minute_of_day, isCompleted, type, repeatMode, createdAt) " +
+                    "SELECT id, title, description, epoch_day, minute_of_day, isCompleted, " +
+                    "CASE type WHEN 'NOTE' THEN 1 WHEN 'REMINDER' THEN 2 ELSE 0 END, " +
+                    "CASE WHEN repeatMode BETWEEN 0 AND 3 THEN repeatMode ELSE 0 END, " +
+                    "createdAt FROM tasks");
+            database.execSQL("DELETE FROM sqlite_sequence WHERE name = 'tasks_new'");
+            database.execSQL("UPDATE sqlite_sequence SET name = 'tasks_new' WHERE name = 'tasks'");
+            database.execSQL("DROP TABLE tasks");
+            database.execSQL("ALTER TABLE tasks_new RENAME TO tasks");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_epoch_day_minute_of_day` " +
+                    "ON `tasks` (`epoch_day`, `minute_of_day`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_tasks_isCompleted_epoch_day` " +
+                    "ON `tasks` (`isCompleted`, `epoch_day`)");
+            createTaskFtsTriggers(database);
+
+            database.execSQL("CREATE TABLE IF NOT EXISTS `reminder_queue_new` (" +
+                    "`task_id` INTEGER NOT NULL, " +
+                    "`trigger_at` INTEGER NOT NULL, " +
+                    "`title` TEXT, " +
+                    "`repeat_mode` INTEGER NOT NULL, " +
+                    "`created_at` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`task_id`))");
+            database.execSQL("INSERT INTO reminder_queue_new (task_id, trigger_at, title, repeat_mode, created_at) " +
+                    "SELECT task_id, trigger_at, title, " +
+                    "CASE UPPER(repeat_mode) WHEN 'DAILY' THEN 1 WHEN 'WEEKLY' THEN 2 WHEN 'MONTHLY' THEN 3 ELSE 0 END, " +
+                    "created_at FROM reminder_queue");
+            database.execSQL("DROP TABLE reminder_queue");
+            database.execSQL("ALTER TABLE reminder_queue_new RENAME TO reminder_queue");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_reminder_queue_trigger_at` " +
+                    "ON `reminder_queue` (`trigger_at`)");
+        }
+    };
+
+    /**
+     * 🧮 Drops completion timestamps that have aged out; the bitmaps keep the days.
+     */
+    public void pruneCompletionTimestamps() {
+        DatabaseExecutor.getInstance().execute(DatabaseExecutor.Priority.MAINTENANCE, () ->
+                new CompletionStore(this).pruneTimestamps());
+    }
+
+    /**
+     * 🔥 Recounts every task's statistics from its completion history (repair path).
+     */
+    public void rebuildStats() {
+        DatabaseExecutor.getInstance().execute(DatabaseExecutor.Priority.MAINTENANCE, () ->
+                runInTransaction(new StreakTracker(this)::rebuildAll));
+    }
+
+    /**
+     * Same triggers Room creates for {@link TaskFts} on a fresh install; needed
+     * whenever `tasks_fts` or `tasks` is (re)created by a migration.
+     */
+    static void createTaskFtsTriggers(SupportSQLiteDatabase database) {
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_BEFORE_UPDATE " +
+                "BEFORE UPDATE ON `tasks` BEGIN DELETE FROM `tasks_fts` WHERE `docid`=OLD.`rowid`; END");
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_BEFORE_DELETE " +
+                "BEFORE DELETE ON `tasks` BEGIN DELETE FROM `tasks_fts` WHERE `docid`=OLD.`rowid`; END");
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_AFTER_UPDATE " +
+                "AFTER UPDATE ON `tasks` BEGIN INSERT INTO `tasks_fts`(`docid`, `title`, `description`) " +
+                "VALUES (NEW.`rowid`, NEW.`title`, NEW.`description`); END");
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_tasks_fts_AFTER_INSERT " +
+                "AFTER INSERT ON `tasks` BEGIN INSERT INTO `tasks_fts`(`docid`, `title`, `description`) " +
+                "VALUES (NEW.`rowid`, NEW.`title`, NEW.`description`); END");
+    }
 }
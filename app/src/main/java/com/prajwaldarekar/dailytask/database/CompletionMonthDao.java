@@ -0,0 +1,89 @@
+package com.prajwaldarekar.dailytask.database;
+
+import android.database.Cursor;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.prajwaldarekar.dailytask.models.CompletionMonth;
+import com.prajwaldarekar.dailytask.models.DayCompletion;
+
+import java.util.List;
+
+/**
+ * DAO for the per-month completion bitmaps. Bits are set and cleared in SQL, so a
+ * toggle never reads the row first. Writes go through {@link CompletionStore}.
+ */
+@Dao
+public interface CompletionMonthDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(CompletionMonth month);
+
+    /**
+     * Make sure the month row exists (with no days set) so the bit updates below have a row to change.
+     */
+    @Query("INSERT OR IGNORE INTO completion_month (task_id, month_index, days) VALUES (:taskId, :monthIndex, 0)")
+    void ensureMonth(long taskId, int monthIndex);
+
+    @Query("UPDATE completion_month SET days = days | :bits WHERE task_id = :taskId AND month_index = :monthIndex")
+    void setBits(long taskId, int monthIndex, int bits);
+
+    @Query("UPDATE completion_month SET days = days & ~:bits WHERE task_id = :taskId AND month_index = :monthIndex")
+    void clearBits(long taskId, int monthIndex, int bits);
+
+    @Query("DELETE FROM completion_month WHERE task_id = :taskId AND month_index = :monthIndex AND days = 0")
+    void deleteIfEmpty(long taskId, int monthIndex);
+
+    @Query("DELETE FROM completion_month WHERE task_id = :taskId")
+    void deleteForTask(long taskId);
+
+    /**
+     * Bitmap of one task and month (primary key lookup), or null when nothing was completed.
+     */
+    @Query("SELECT days FROM completion_month WHERE task_id = :taskId AND month_index = :monthIndex")
+    Integer getDays(long taskId, int monthIndex);
+
+    /**
+     * Which of the given tasks have the day bit set in the month.
+     */
+    @Query("SELECT task_id FROM completion_month " +
+            "WHERE month_index = :monthIndex AND (days & :bit) != 0 AND task_id IN (:taskIds)")
+    List<Long> getCompletedTaskIds(List<Long> taskIds, int monthIndex, int bit);
+
+    /**
+     * Which of the given tasks have been completed on any day.
+     */
+    @Query("SELECT DISTINCT task_id FROM completion_month WHERE days != 0 AND task_id IN (:taskIds)")
+    List<Long> getEverCompletedTaskIds(List<Long> taskIds);
+
+    /**
+     * A task's months in [fromMonth, toMonth], oldest first.
+     */
+    @Query("SELECT * FROM completion_month " +
+            "WHERE task_id = :taskId AND month_index BETWEEN :fromMonth AND :toMonth ORDER BY month_index ASC")
+    List<CompletionMonth> getMonths(long taskId, int fromMonth, int toMonth);
+
+    /**
+     * A task's whole history, oldest first: one row per month with completions.
+     */
+    @Query("SELECT * FROM completion_month WHERE task_id = :taskId ORDER BY month_index ASC")
+    List<CompletionMonth> getHistory(long taskId);
+
+    /**
+     * Every bitmap grouped by task, oldest first, streamed for full rebuilds.
+     */
+    @Query("SELECT task_id, month_index, days FROM completion_month ORDER BY task_id ASC, month_index ASC")
+    Cursor getAllHistory();
+
+    /**
+     * Tasks completed on a day, with completed_at where the day's timestamp row still exists.
+     */
+    @Query("SELECT m.task_id AS task_id, c.completed_at AS completed_at FROM completion_month m " +
+            "LEFT JOIN task_completion c ON c.task_id = m.task_id AND c.completion_date = :date " +
+            "WHERE m.month_index = :monthIndex AND (m.days & :bit) != 0")
+    LiveData<List<DayCompletion>> getCompletionsOnDay(long date, int monthIndex, int bit);
+}
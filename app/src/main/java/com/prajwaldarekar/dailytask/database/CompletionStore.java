@@ -0,0 +1,106 @@
+package com.prajwaldarekar.dailytask.database;
+
+import com.prajwaldarekar.dailytask.models.CompletionMonth;
+import com.prajwaldarekar.dailytask.models.TaskCompletion;
+import com.prajwaldarekar.dailytask.recurrence.EpochDays;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 🧮 Writes completions to both stores in one go.
+ *
+ * completion_month bitmaps hold the full history and answer every "was it completed"
+ * question; task_completion rows only carry completed_at, which nothing reads beyond the
+ * last {@link #TIMESTAMP_RETENTION_DAYS} days, so older rows are pruned.
+ * All methods are blocking and belong inside a transaction on the database writer thread.
+ */
+public final class CompletionStore {
+
+    // completed_at is only used to order recently completed tasks
+    static final int TIMESTAMP_RETENTION_DAYS = 31;
+
+    private final TaskCompletionDao completionDao;
+    private final CompletionMonthDao monthDao;
+
+    public CompletionStore(AppDatabase database) {
+        completionDao = database.taskCompletionDao();
+        monthDao = database.completionMonthDao();
+    }
+
+    /** Whether the task is completed on the day starting at {@code date} (epoch millis at 00:00). */
+    public boolean isCompleted(long taskId, long date) {
+        int day = EpochDays.fromMillis(date);
+        Integer days = monthDao.getDays(taskId, EpochDays.monthIndex(day));
+        return days != null && (days & CompletionMonth.dayBit(day)) != 0;
+    }
+
+    /** Which of the given tasks are completed on the day, in chunks below the bound-variable limit. */
+    public List<Long> getCompletedTaskIds(List<Long> taskIds, long date) {
+        int day = EpochDays.fromMillis(date);
+        List<Long> completed = new ArrayList<>();
+        for (List<Long> chunk : SqlBatches.chunks(taskIds)) {
+            completed.addAll(monthDao.getCompletedTaskIds(chunk, EpochDays.monthIndex(day), CompletionMonth.dayBit(day)));
+        }
+        return completed;
+    }
+
+    public void markCompleted(long taskId, long date, Long completedAt) {
+        completionDao.upsert(taskId, date, true, completedAt);
+        setBit(taskId, EpochDays.fromMillis(date));
+    }
+
+    /** Writes many rows at once; rows not marked completed clear their day. */
+    public void markAll(List<TaskCompletion> rows) {
+        List<TaskCompletion> completed = new ArrayList<>(rows.size());
+        for (TaskCompletion row : rows) {
+            if (row.isCompleted()) {
+                completed.add(row);
+                setBit(row.getTaskId(), EpochDays.fromMillis(row.getDate()));
+            } else {
+                markUncompleted(row.getTaskId(), row.getDate());
+            }
+        }
+        completionDao.insertOrUpdateAll(completed);
+    }
+
+    public void markUncompleted(long taskId, long date) {
+        completionDao.deleteCompletion(taskId, date);
+
+        int day = EpochDays.fromMillis(date);
+        int monthIndex = EpochDays.monthIndex(day);
+        monthDao.clearBits(taskId, monthIndex, CompletionMonth.dayBit(day));
+        monthDao.deleteIfEmpty(taskId, monthIndex);
+    }
+
+    public void markUncompleted(List<Long> taskIds, long date) {
+        for (List<Long> chunk : SqlBatches.chunks(taskIds)) {
+            completionDao.deleteCompletions(chunk, date);
+        }
+
+        int day = EpochDays.fromMillis(date);
+        int monthIndex = EpochDays.monthIndex(day);
+        int bit = CompletionMonth.dayBit(day);
+        for (long taskId : taskIds) {
+            monthDao.clearBits(taskId, monthIndex, bit);
+            monthDao.deleteIfEmpty(taskId, monthIndex);
+        }
+    }
+
+    /** Removes a task's whole history. */
+    public void clear(long taskId) {
+        completionDao.deleteAllCompletionsForTask(taskId);
+        monthDao.deleteForTask(taskId);
+    }
+
+    /** Drops completed_at rows older than the retention window; the bitmaps keep the days. */
+    public void pruneTimestamps() {
+        completionDao.deleteBefore(EpochDays.startOfDayMillis(EpochDays.today() - TIMESTAMP_RETENTION_DAYS));
+    }
+
+    private void setBit(long taskId, int day) {
+        int monthIndex = EpochDays.monthIndex(day);
+        monthDao.ensureMonth(taskId, monthIndex);
+        monthDao.setBits(taskId, monthIndex, CompletionMonth.dayBit(day));
+    }
+}
@@ -5,37 +5,46 @@ import androidx.room.TypeConverter;
 import com.prajwaldarekar.dailytask.models.RepeatMode;
 import com.prajwaldarekar.dailytask.models.TaskType;
 
-import java.util.Date;
-
-public class Converters {
-
-    @TypeConverter
-    public static Long fromDate(Date date) {
-        return date == null ? null : date.getTime();
+/**
+ * 🔁 The app's only Room type converters, registered once on {@link AppDatabase}.
+ *
+ * Enums are stored as their small integer codes ({@link TaskType#getCode()},
+ * {@link RepeatMode#getCode()}), never as names or ordinals, so renaming or reordering
+ * constants cannot change what is on disk. A null enum is stored as the default
+ * constant, which keeps both columns NOT NULL.
+ */
+public final class Converters {
+
+    /**
+     * Version of the enum encoding. Changing the meaning of a code means bumping this
+     * together with a migration that rewrites the stored values.
+     */
+    public static final int ENCODING_VERSION = 1;
+
+    private Converters() {
     }
 
-    @TypeConverter
-    public static Date toDate(Long timestamp) {
-        return timestamp == null ? null : new Date(timestamp);
-    }
+    // 🔁 --- TaskType ---
 
     @TypeConverter
-    public static String fromTaskType(TaskType type) {
-        return type == null ? null : type.name();
+    public static int fromTaskType(TaskType type) {
+        return type != null ? type.getCode() : TaskType.TASK.getCode();
     }
 
     @TypeConverter
-    public static TaskType toTaskType(String type) {
-        return type == null ? null : TaskType.valueOf(type);
+    public static TaskType toTaskType(int code) {
+        return TaskType.fromCode(code);
     }
 
+    // 🔁 --- RepeatMode ---
+
     @TypeConverter
-    public static String fromRepeatMode(RepeatMode mode) {
-        return mode == null ? null : mode.name();
+    public static int fromRepeatMode(RepeatMode mode) {
+        return mode != null ? mode.getCode() : RepeatMode.NONE.getCode();
     }
 
     @TypeConverter
-    public static RepeatMode toRepeatMode(String mode) {
-        return mode == null ? null : RepeatMode.valueOf(mode);
+    public static RepeatMode toRepeatMode(int code) {
+        return RepeatMode.fromCode(code);
     }
 }
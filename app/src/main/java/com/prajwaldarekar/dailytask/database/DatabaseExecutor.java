@@ -0,0 +1,163 @@
+package com.prajwaldarekar.dailytask.database;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.crashlytics.FirebaseCrashlytics;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 🧵 App-wide database write executor.
+ *
+ * Every DAO write in the app runs on this one thread, so writes to tasks, completions
+ * and the reminder queue are applied in a single consistent order and the thread count
+ * no longer grows with the number of repositories. User-initiated work always runs
+ * before queued background maintenance; within a priority, work runs in submit order.
+ */
+public final class DatabaseExecutor {
+
+    public enum Priority {
+        USER,           // Something the user just did and is waiting to see
+        MAINTENANCE     // Rescheduling, rebuilds, cleanups
+    }
+
+    // Work slower than this is reported to Crashlytics
+    private static final long SLOW_TASK_MILLIS = 250;
+
+    private static volatile DatabaseExecutor INSTANCE;
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong sequence = new AtomicLong();
+
+    // 📊 Metrics
+    private final AtomicInteger peakQueueDepth = new AtomicInteger();
+    private final AtomicLong completedTasks = new AtomicLong();
+    private final AtomicLong totalWaitMillis = new AtomicLong();
+    private final AtomicLong totalRunMillis = new AtomicLong();
+
+    private DatabaseExecutor() {
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "db-writer");
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                });
+    }
+
+    public static DatabaseExecutor getInstance() {
+        if (INSTANCE == null) {
+            synchronized (DatabaseExecutor.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new DatabaseExecutor();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Runs {@code work} on the database thread with the given priority.
+     * Only execute is offered: a queued task must stay comparable, which rules out submit's futures.
+     */
+    public void execute(Priority priority, Runnable work) {
+        executor.execute(new PrioritizedTask(priority, sequence.getAndIncrement(), work));
+
+        int depth = executor.getQueue().size();
+        int peak;
+        while (depth > (peak = peakQueueDepth.get()) && !peakQueueDepth.compareAndSet(peak, depth)) {
+            // Retry until the peak is at least the current depth
+        }
+    }
+
+    /** Plain {@link Executor} view posting work at the given priority, for APIs that take an executor. */
+    public Executor asExecutor(Priority priority) {
+        return work -> execute(priority, work);
+    }
+
+    // 📊 --- Metrics ---
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getPeakQueueDepth() {
+        return peakQueueDepth.get();
+    }
+
+    public long getCompletedTaskCount() {
+        return completedTasks.get();
+    }
+
+    /** Average time work spent queued before it started. */
+    public long getAverageWaitMillis() {
+        long count = completedTasks.get();
+        return count > 0 ? totalWaitMillis.get() / count : 0;
+    }
+
+    /** Average time work spent running. */
+    public long getAverageRunMillis() {
+        long count = completedTasks.get();
+        return count > 0 ? totalRunMillis.get() / count : 0;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "DatabaseExecutor{" +
+                "queueDepth=" + getQueueDepth() +
+                ", peakQueueDepth=" + getPeakQueueDepth() +
+                ", completed=" + getCompletedTaskCount() +
+                ", avgWaitMs=" + getAverageWaitMillis() +
+                ", avgRunMs=" + getAverageRunMillis() +
+                '}';
+    }
+
+    private final class PrioritizedTask implements Runnable, Comparable<PrioritizedTask> {
+        private final Priority priority;
+        private final long sequence;
+        private final Runnable work;
+        private final long enqueuedAt = SystemClock.elapsedRealtime();
+
+        PrioritizedTask(Priority priority, long sequence, Runnable work) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            long startedAt = SystemClock.elapsedRealtime();
+            try {
+                work.run();
+            } catch (Exception e) {
+                // Keep the shared writer thread alive for everyone else
+                FirebaseCrashlytics.getInstance().recordException(e);
+            } finally {
+                long finishedAt = SystemClock.elapsedRealtime();
+                totalWaitMillis.addAndGet(startedAt - enqueuedAt);
+                totalRunMillis.addAndGet(finishedAt - startedAt);
+                completedTasks.incrementAndGet();
+
+                if (finishedAt - enqueuedAt > SLOW_TASK_MILLIS) {
+                    FirebaseCrashlytics.getInstance().log("Slow " + priority + " db work: waited "
+                            + (startedAt - enqueuedAt) + "ms, ran " + (finishedAt - startedAt)
+                            + "ms, queue depth " + getQueueDepth());
+                }
+            }
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
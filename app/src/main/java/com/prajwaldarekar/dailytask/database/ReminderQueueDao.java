@@ -0,0 +1,54 @@
+package com.prajwaldarekar.dailytask.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.prajwaldarekar.dailytask.models.ReminderQueueEntry;
+
+import java.util.List;
+
+/**
+ * DAO for the persistent reminder queue. All calls are blocking and must run
+ * on the scheduler's worker thread.
+ */
+@Dao
+public interface ReminderQueueDao {
+
+    /**
+     * Insert or replace the pending occurrence of a task.
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(ReminderQueueEntry entry);
+
+    /**
+     * Insert entries for tasks that have no pending occurrence yet (one prepared statement for the whole list).
+     */
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertIfAbsent(List<ReminderQueueEntry> entries);
+
+    /**
+     * Remove the pending occurrence of a task, if any.
+     */
+    @Query("DELETE FROM reminder_queue WHERE task_id = :taskId")
+    void delete(long taskId);
+
+    /**
+     * Remove every entry that is not due yet at the given time.
+     */
+    @Query("DELETE FROM reminder_queue WHERE trigger_at > :time")
+    void deleteAfter(long time);
+
+    /**
+     * Every entry due at or before the given time, earliest first.
+     */
+    @Query("SELECT * FROM reminder_queue WHERE trigger_at <= :until ORDER BY trigger_at ASC")
+    List<ReminderQueueEntry> getDueEntries(long until);
+
+    /**
+     * Earliest trigger time in the queue, or null when the queue is empty.
+     */
+    @Query("SELECT MIN(trigger_at) FROM reminder_queue")
+    Long getNextTriggerAt();
+}
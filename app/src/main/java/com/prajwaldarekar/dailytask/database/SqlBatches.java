@@ -0,0 +1,27 @@
+package com.prajwaldarekar.dailytask.database;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits id lists for {@code IN (:ids)} queries. SQLite caps the bound variables of one
+ * statement (999 on older devices), so every IN list goes through {@link #chunks(List)}.
+ */
+final class SqlBatches {
+
+    static final int MAX_IN_LIST = 500;
+
+    private SqlBatches() {
+    }
+
+    /**
+     * Consecutive views of {@code list}, each at most {@link #MAX_IN_LIST} long; none when it is empty.
+     */
+    static <T> List<List<T>> chunks(List<T> list) {
+        List<List<T>> chunks = new ArrayList<>((list.size() + MAX_IN_LIST - 1) / MAX_IN_LIST);
+        for (int from = 0; from < list.size(); from += MAX_IN_LIST) {
+            chunks.add(list.subList(from, Math.min(from + MAX_IN_LIST, list.size())));
+        }
+        return chunks;
+    }
+}
@@ -12,17 +12,34 @@ import java.util.List;
 
 /**
  * DAO for managing task completion records for recurring tasks on a per-day basis.
+ * Rows carry completed_at and are kept for recent days only; the full history lives in
+ * completion_month (see {@link CompletionStore}), which all writes must keep in step.
  */
 @Dao
 public interface TaskCompletionDao {
 
     /**
      * Insert or update a task completion record for a specific date.
-     * If the record already exists, it will be replaced.
+     * If the record already exists, it will be replaced
+     * (conflicts are detected on the unique (task_id, completion_date) index).
      */
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertOrUpdate(TaskCompletion completion);
 
+    /**
+     * Insert or replace many completion records (one row per task_id/completion_date).
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertOrUpdateAll(List<TaskCompletion> completions);
+
+    /**
+     * Single-statement upsert of the completion state of a task on a date.
+     * Avoids building an entity and keeps one row per (task_id, completion_date).
+     */
+    @Query("INSERT OR REPLACE INTO task_completion (task_id, completion_date, is_completed, completed_at) " +
+            "VALUES (:taskId, :date, :isCompleted, :completedAt)")
+    void upsert(long taskId, long date, boolean isCompleted, Long completedAt);
+
     /**
      * Get the LiveData of the task's completion status on a specific date.
      * Useful for observing changes in completion state.
@@ -38,8 +55,8 @@ public interface TaskCompletionDao {
     LiveData<List<TaskCompletion>> getAllForDate(long date);
 
     /**
-     * Get full completion history of a specific task.
-     * Useful for analytics, streak tracking, etc.
+     * Get the recent completion rows of a specific task (within the timestamp retention window).
+     * For the full history use the completion_month bitmaps.
      */
     @Query("SELECT * FROM task_completion WHERE task_id = :taskId ORDER BY completion_date ASC")
     LiveData<List<TaskCompletion>> getAllCompletionsForTask(long taskId);
@@ -51,10 +68,28 @@ public interface TaskCompletionDao {
     @Query("DELETE FROM task_completion WHERE task_id = :taskId")
     void deleteAllCompletionsForTask(long taskId);
 
+    /**
+     * Delete all completion records of several tasks.
+     */
+    @Query("DELETE FROM task_completion WHERE task_id IN (:taskIds)")
+    void deleteAllCompletionsForTasks(List<Long> taskIds);
+
     /**
      * Delete a specific completion record for a task on a given date.
      * Used when unmarking completion for that day.
      */
     @Query("DELETE FROM task_completion WHERE task_id = :taskId AND completion_date = :date")
     void deleteCompletion(long taskId, long date);
+
+    /**
+     * Delete the completion records of several tasks on a given date.
+     */
+    @Query("DELETE FROM task_completion WHERE completion_date = :date AND task_id IN (:taskIds)")
+    void deleteCompletions(List<Long> taskIds, long date);
+
+    /**
+     * Delete every completion record before the given date (timestamp pruning).
+     */
+    @Query("DELETE FROM task_completion WHERE completion_date < :date")
+    void deleteBefore(long date);
 }
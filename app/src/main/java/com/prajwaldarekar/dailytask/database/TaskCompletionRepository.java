@@ -3,34 +3,49 @@ package com.prajwaldarekar.dailytask.database;
 import android.app.Application;
 
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Transformations;
 
+import com.prajwaldarekar.dailytask.analytics.StreakTracker;
+import com.prajwaldarekar.dailytask.models.CompletionMonth;
+import com.prajwaldarekar.dailytask.models.CompletionSnapshot;
 import com.prajwaldarekar.dailytask.models.TaskCompletion;
+import com.prajwaldarekar.dailytask.models.TaskStats;
+import com.prajwaldarekar.dailytask.recurrence.EpochDays;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Set;
 
 public class TaskCompletionRepository {
 
+    private final AppDatabase database;
     private final TaskCompletionDao completionDao;
-    private final ExecutorService executorService;
+    private final CompletionMonthDao monthDao;
+    private final CompletionStore completionStore;
+    private final TaskStatsDao statsDao;
+    private final StreakTracker streakTracker;
+    private final DatabaseExecutor databaseExecutor;
+    private final WriteBehindBuffer writeBuffer;
 
     public TaskCompletionRepository(Application application) {
         AppDatabase db = AppDatabase.getInstance(application);
+        database = db;
         completionDao = db.taskCompletionDao();
-        executorService = Executors.newFixedThreadPool(2); // More responsive for concurrent ops
+        monthDao = db.completionMonthDao();
+        completionStore = new CompletionStore(db);
+        statsDao = db.taskStatsDao();
+        streakTracker = new StreakTracker(db);
+        databaseExecutor = DatabaseExecutor.getInstance(); // Shared writer keeps task/completion writes in order
+        writeBuffer = WriteBehindBuffer.getInstance(application);
     }
 
     /**
      * Mark a task as completed on a specific date.
-     * If already exists, it will be updated.
+     * If already exists, it will be updated. Rapid toggles are coalesced by the write buffer.
      */
     public void markTaskCompleted(long taskId, long date) {
-        executorService.execute(() -> {
-            long completedAt = System.currentTimeMillis();
-            TaskCompletion completion = new TaskCompletion(taskId, date, true, completedAt);
-            completionDao.insertOrUpdate(completion);
-        });
+        writeBuffer.setCompleted(taskId, date, true);
     }
 
     /**
@@ -48,7 +63,37 @@ public class TaskCompletionRepository {
     }
 
     /**
-     * Returns LiveData list of all completion records for a specific task.
+     * Returns LiveData of an immutable task id -> completedAt snapshot for a specific date.
+     * Read from the completion bitmaps, so it also covers days whose timestamps were pruned.
+     */
+    public LiveData<CompletionSnapshot> getSnapshotForDate(long date) {
+        int day = EpochDays.fromMillis(date);
+        return Transformations.map(
+                monthDao.getCompletionsOnDay(date, EpochDays.monthIndex(day), CompletionMonth.dayBit(day)),
+                completions -> CompletionSnapshot.ofDay(date, completions));
+    }
+
+    /**
+     * Number of days in [fromDay, toDay] (epoch days, inclusive) the task was completed on:
+     * one bitmap row per month and a popcount each. Blocking: call from a background thread.
+     */
+    public int countCompletedDays(long taskId, int fromDay, int toDay) {
+        if (fromDay > toDay) return 0;
+
+        int fromMonth = EpochDays.monthIndex(fromDay);
+        int toMonth = EpochDays.monthIndex(toDay);
+        int count = 0;
+        for (CompletionMonth month : monthDao.getMonths(taskId, fromMonth, toMonth)) {
+            int first = month.getMonthIndex() == fromMonth ? EpochDays.dayOfMonth(fromDay) : 1;
+            int last = month.getMonthIndex() == toMonth ? EpochDays.dayOfMonth(toDay) : 31;
+            count += month.countDays(first, last);
+        }
+        return count;
+    }
+
+    /**
+     * Returns LiveData list of the recent completion records for a specific task
+     * (older rows are pruned; see {@link #countCompletedDays(long, int, int)} for history).
      */
     public LiveData<List<TaskCompletion>> getAllCompletionsForTask(long taskId) {
         return completionDao.getAllCompletionsForTask(taskId);
@@ -58,20 +103,88 @@ public class TaskCompletionRepository {
      * Deletes all completion records associated with a given task.
      */
     public void deleteAllCompletionsForTask(long taskId) {
-        executorService.execute(() -> completionDao.deleteAllCompletionsForTask(taskId));
+        writeBuffer.discardCompletions(taskId);
+        databaseExecutor.execute(DatabaseExecutor.Priority.USER, () ->
+                database.runInTransaction(() -> {
+                    completionStore.clear(taskId);
+                    streakTracker.onCompletionsCleared(taskId);
+                }));
     }
 
     /**
      * Deletes a specific completion record for a given task and date.
      */
     public void deleteCompletion(long taskId, long date) {
-        executorService.execute(() -> completionDao.deleteCompletion(taskId, date));
+        writeBuffer.setCompleted(taskId, date, false);
+    }
+
+    /**
+     * Insert or replace many completion records in one transaction.
+     */
+    public void insertOrUpdateAll(List<TaskCompletion> completions) {
+        List<TaskCompletion> rows = new ArrayList<>(completions);
+        writeBuffer.flush(); // Keep buffered toggles ordered before this write
+        databaseExecutor.execute(DatabaseExecutor.Priority.USER, () ->
+                database.runInTransaction(() -> {
+                    boolean[] wereCompleted = new boolean[rows.size()];
+                    for (int i = 0; i < rows.size(); i++) {
+                        wereCompleted[i] = completionStore.isCompleted(rows.get(i).getTaskId(), rows.get(i).getDate());
+                    }
+
+                    completionStore.markAll(rows);
+
+                    for (int i = 0; i < rows.size(); i++) {
+                        TaskCompletion row = rows.get(i);
+                        if (row.isCompleted() && !wereCompleted[i]) {
+                            streakTracker.onCompleted(row.getTaskId(), row.getDate());
+                        } else if (!row.isCompleted() && wereCompleted[i]) {
+                            streakTracker.onUncompleted(row.getTaskId(), row.getDate());
+                        }
+                    }
+                }));
+    }
+
+    /**
+     * Deletes the completion records of several tasks on a given date in one transaction.
+     */
+    public void deleteCompletions(List<Long> taskIds, long date) {
+        List<Long> ids = new ArrayList<>(taskIds);
+        writeBuffer.flush();
+        databaseExecutor.execute(DatabaseExecutor.Priority.USER, () ->
+                database.runInTransaction(() -> {
+                    Set<Long> wereCompleted = new HashSet<>(completionStore.getCompletedTaskIds(ids, date));
+                    completionStore.markUncompleted(ids, date);
+                    for (long taskId : wereCompleted) {
+                        streakTracker.onUncompleted(taskId, date);
+                    }
+                }));
+    }
+
+    // 🔥 --- Statistics ---
+
+    /**
+     * Statistics row of one task, or null when it has no completions (primary key read, blocking).
+     */
+    public TaskStats getStats(long taskId) {
+        return statsDao.getStats(taskId);
+    }
+
+    /**
+     * Statistics of several tasks; tasks without completions are missing (blocking).
+     */
+    public List<TaskStats> getStatsForTasks(List<Long> taskIds) {
+        List<TaskStats> stats = new ArrayList<>();
+        for (List<Long> chunk : SqlBatches.chunks(taskIds)) {
+            stats.addAll(statsDao.getStatsForTasks(chunk));
+        }
+        return stats;
     }
 
     /**
-     * Optional cleanup method (e.g., call in ViewModel.onCleared).
+     * Recounts all statistics from the completion history, e.g. after a restore.
      */
-    public void shutdown() {
-        executorService.shutdown();
+    public void rebuildStats() {
+        writeBuffer.flush();
+        database.rebuildStats();
     }
 }
@@ -1,13 +1,23 @@
 package com.prajwaldarekar.dailytask.database;
 
+import android.database.Cursor;
+
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
 import androidx.room.*;
 
+import com.prajwaldarekar.dailytask.models.DayCount;
+import com.prajwaldarekar.dailytask.models.ReminderMonth;
 import com.prajwaldarekar.dailytask.models.Task;
+import com.prajwaldarekar.dailytask.models.TaskSearchHit;
+import com.prajwaldarekar.dailytask.models.TaskWithStats;
 
-import java.util.Date;
 import java.util.List;
 
+/**
+ * DAO for tasks. Enums are stored as their codes (see {@link Converters}): in SQL below,
+ * type = 2 is {@code TaskType.REMINDER} and repeatMode = 0 is {@code RepeatMode.NONE}.
+ */
 @Dao
 public interface TaskDao {
 
@@ -20,22 +30,135 @@ public interface TaskDao {
     @Delete
     void deleteTask(Task task);
 
+    // 📦 --- Bulk operations: each reuses one prepared statement; run inside a transaction for one commit ---
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    long[] insertTasks(List<Task> tasks);
+
+    @Update
+    void updateTasks(List<Task> tasks);
+
+    @Delete
+    void deleteTasks(List<Task> tasks);
+
+    @Query("DELETE FROM tasks WHERE id IN (:ids)")
+    void deleteTasksByIds(List<Integer> ids);
+
+    @Query("UPDATE tasks SET isCompleted = :completed WHERE id IN (:ids)")
+    void setTasksCompleted(List<Integer> ids, boolean completed);
+
     // ✅ All Tasks (ordered by date/time)
-    @Query("SELECT * FROM tasks ORDER BY date ASC, time ASC")
+    @Query("SELECT * FROM tasks ORDER BY epoch_day ASC, minute_of_day ASC")
     LiveData<List<Task>> getAllTasks();
 
-    // ✅ Tasks for a specific date (optional use)
-    @Query("SELECT * FROM tasks WHERE date = :date")
-    LiveData<List<Task>> getTasksByDate(Date date); // ✅ Matches the model field type
+    // ✅ Tasks on epoch days [startDay, endDay) plus every repeating reminder (Calendar window)
+    @Query("SELECT * FROM tasks " +
+            "WHERE (epoch_day >= :startDay AND epoch_day < :endDay) " +
+            "OR (type = 2 AND repeatMode != 0) " +
+            "ORDER BY epoch_day ASC, minute_of_day ASC")
+    LiveData<List<Task>> getTasksInRange(int startDay, int endDay);
+
+    /**
+     * 🗓 Per-day counts of the non-repeating tasks of the month starting on :firstDay:
+     * completion is isCompleted for tasks and notes, the month's bitmap bit for reminders.
+     * Repeating reminders are expanded separately from {@link #getRepeatingReminderMonths}.
+     */
+    @Query("SELECT t.epoch_day - :firstDay + 1 AS day_of_month, COUNT(*) AS total, " +
+            "SUM(CASE WHEN t.type = 2 THEN (IFNULL(m.days, 0) >> (t.epoch_day - :firstDay)) & 1 " +
+            "ELSE t.isCompleted END) AS completed " +
+            "FROM tasks t " +
+            "LEFT JOIN completion_month m ON m.task_id = t.id AND m.month_index = :monthIndex " +
+            "WHERE t.epoch_day >= :firstDay AND t.epoch_day < :endDay AND (t.type != 2 OR t.repeatMode = 0) " +
+            "GROUP BY t.epoch_day")
+    List<DayCount> getDayCounts(int firstDay, int endDay, int monthIndex);
+
+    /**
+     * Repeating reminders that start before :endDay, each with its completion bitmap for the month.
+     */
+    @Query("SELECT t.*, IFNULL(m.days, 0) AS days FROM tasks t " +
+            "LEFT JOIN completion_month m ON m.task_id = t.id AND m.month_index = :monthIndex " +
+            "WHERE t.type = 2 AND t.repeatMode != 0 AND t.epoch_day < :endDay")
+    List<ReminderMonth> getRepeatingReminderMonths(int endDay, int monthIndex);
+
+    // ✅ Tasks on/after :sinceDay, pending tasks of any day, one-off reminders never completed
+    // and every repeating reminder (Tasks tab)
+    @Query("SELECT * FROM tasks " +
+            "WHERE epoch_day >= :sinceDay " +
+            "OR (isCompleted = 0 AND type != 2) " +
+            "OR (type = 2 AND repeatMode != 0) " +
+            "OR (type = 2 AND NOT EXISTS (SELECT 1 FROM completion_month m WHERE m.task_id = tasks.id AND m.days != 0)) " +
+            "ORDER BY epoch_day ASC, minute_of_day ASC")
+    LiveData<List<Task>> getActiveTasks(int sinceDay);
+
+    /**
+     * Same rows as {@link #getActiveTasks(int)}, paged and sorted the way the Tasks tab
+     * shows them: incomplete first, then overdue, then by due time, and completed tasks
+     * with the latest completion first. A reminder's isCompleted reflects its
+     * task_completion row for :today (millis). :nowMinute is the current local time as
+     * epoch day * 1440 + minute of day. Each row carries its task_stats row (columns
+     * prefixed stats_), so streaks need no lookup per row. The outer select lists only
+     * the mapped columns; completed_at is used for ordering but not returned.
+     */
+    @Query("SELECT id, title, description, epoch_day, minute_of_day, type, repeatMode, createdAt, isCompleted, " +
+            "stats_task_id, stats_current_streak, stats_longest_streak, stats_total_completions, stats_last_completed_day FROM (" +
+            "SELECT t.id, t.title, t.description, t.epoch_day, t.minute_of_day, t.type, t.repeatMode, t.createdAt, " +
+            "CASE WHEN t.type = 2 THEN c.task_id IS NOT NULL ELSE t.isCompleted END AS isCompleted, " +
+            "c.completed_at AS completed_at, " +
+            "s.task_id AS stats_task_id, s.current_streak AS stats_current_streak, s.longest_streak AS stats_longest_streak, " +
+            "s.total_completions AS stats_total_completions, s.last_completed_day AS stats_last_completed_day " +
+            "FROM tasks t " +
+            "LEFT JOIN task_completion c " +
+            "ON c.task_id = t.id AND c.completion_date = :today AND c.is_completed = 1 " +
+            "LEFT JOIN task_stats s ON s.task_id = t.id " +
+            "WHERE t.epoch_day >= :sinceDay " +
+            "OR (t.isCompleted = 0 AND t.type != 2) " +
+            "OR (t.type = 2 AND t.repeatMode != 0) " +
+            "OR (t.type = 2 AND NOT EXISTS (SELECT 1 FROM completion_month m WHERE m.task_id = t.id AND m.days != 0))" +
+            ") ORDER BY isCompleted ASC, " +
+            "CASE WHEN isCompleted = 0 AND epoch_day * 1440 + minute_of_day < :nowMinute THEN 0 ELSE 1 END ASC, " +
+            "CASE WHEN isCompleted = 0 THEN epoch_day END ASC, " +
+            "CASE WHEN isCompleted = 0 THEN minute_of_day END ASC, " +
+            "completed_at DESC, id ASC")
+    PagingSource<Integer, TaskWithStats> getPagedActiveTasks(int sinceDay, long today, long nowMinute);
+
+    // ✅ Number of stored tasks
+    @Query("SELECT COUNT(*) FROM tasks")
+    LiveData<Integer> getTaskCount();
+
+    // ✅ Tasks on a specific epoch day (optional use)
+    @Query("SELECT * FROM tasks WHERE epoch_day = :epochDay ORDER BY minute_of_day ASC")
+    LiveData<List<Task>> getTasksOnDay(int epochDay);
 
     // ✅ Only Completed Tasks
-    @Query("SELECT * FROM tasks WHERE isCompleted = 1 ORDER BY date ASC, time ASC")
+    @Query("SELECT * FROM tasks WHERE isCompleted = 1 ORDER BY epoch_day ASC, minute_of_day ASC")
     LiveData<List<Task>> getCompletedTasks();
 
     // ✅ Only Pending (Not Completed) Tasks
-    @Query("SELECT * FROM tasks WHERE isCompleted = 0 ORDER BY date ASC, time ASC")
+    @Query("SELECT * FROM tasks WHERE isCompleted = 0 ORDER BY epoch_day ASC, minute_of_day ASC")
     LiveData<List<Task>> getPendingTasks();
 
+    // ✅ Every row at once (blocking, loads the in-memory TaskStore)
+    @Query("SELECT * FROM tasks")
+    List<Task> loadAllTasks();
+
+    // ✅ Current row of one task, or null (blocking, for background workers)
+    @Query("SELECT * FROM tasks WHERE id = :id")
+    Task getTaskById(long id);
+
+    // ✅ Current rows of the given tasks (blocking, for background workers)
+    @Query("SELECT * FROM tasks WHERE id IN (:ids)")
+    List<Task> getTasksByIds(List<Long> ids);
+
+    // ✅ Reminders that can still fire, as a cursor so large tables are streamed instead of loaded
+    @Query("SELECT id, title, epoch_day, minute_of_day, repeatMode, createdAt FROM tasks " +
+            "WHERE type = 2 AND (repeatMode != 0 OR epoch_day >= :sinceDay)")
+    Cursor getSchedulableReminders(int sinceDay);
+
+    // 🔎 Full-text matches of an FTS query (e.g. "buy* milk*") with matchinfo for ranking (blocking)
+    @Query("SELECT rowid AS task_id, matchinfo(tasks_fts, 'pcx') AS match_info " +
+            "FROM tasks_fts WHERE tasks_fts MATCH :match")
+    List<TaskSearchHit> searchTasks(String match);
+
     // ✅ Delete by ID
     @Query("DELETE FROM tasks WHERE id = :id")
     void deleteTaskById(int id);
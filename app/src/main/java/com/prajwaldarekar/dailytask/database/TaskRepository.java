@@ -3,35 +3,236 @@ package com.prajwaldarekar.dailytask.database;
 import android.app.Application;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
+import androidx.room.InvalidationTracker;
 
+import com.prajwaldarekar.dailytask.analytics.StreakTracker;
+import com.prajwaldarekar.dailytask.models.CompletionMonth;
+import com.prajwaldarekar.dailytask.recurrence.EpochDays;
+import com.prajwaldarekar.dailytask.recurrence.RecurrenceRule;
+
+import com.prajwaldarekar.dailytask.models.DayCount;
+import com.prajwaldarekar.dailytask.models.MonthCounts;
+import com.prajwaldarekar.dailytask.models.ReminderMonth;
 import com.prajwaldarekar.dailytask.models.Task;
+import com.prajwaldarekar.dailytask.models.TaskCompletion;
+import com.prajwaldarekar.dailytask.models.TaskSearchHit;
+import com.prajwaldarekar.dailytask.models.TaskType;
+import com.prajwaldarekar.dailytask.models.TaskWithStats;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 public class TaskRepository {
 
+    // 🆔 Called on the repository's background thread with the generated row id
+    public interface OnTaskInsertedListener {
+        void onTaskInserted(long id);
+    }
+
+    // 🗑 Called on the repository's background thread with the rows as they were stored
+    public interface OnTasksDeletedListener {
+        void onTasksDeleted(List<Task> rows);
+    }
+
+    private final AppDatabase database;
     private final TaskDao taskDao;
+    private final CompletionStore completionStore;
+    private final StreakTracker streakTracker;
+    private final TaskStore taskStore;
     private final LiveData<List<Task>> allTasks;
     private final LiveData<List<Task>> completedTasks;
     private final LiveData<List<Task>> pendingTasks;
 
-    private final ExecutorService executorService;
+    private final DatabaseExecutor databaseExecutor;
+    private final WriteBehindBuffer writeBuffer;
 
     public TaskRepository(Application application) {
         AppDatabase db = AppDatabase.getInstance(application);
+        database = db;
         taskDao = db.taskDao();
+        completionStore = new CompletionStore(db);
+        streakTracker = new StreakTracker(db);
+        taskStore = TaskStore.getInstance(application);
+        taskStore.load();
         allTasks = taskDao.getAllTasks();
         completedTasks = taskDao.getCompletedTasks();
         pendingTasks = taskDao.getPendingTasks();
-        executorService = Executors.newSingleThreadExecutor();
+        databaseExecutor = DatabaseExecutor.getInstance();
+        writeBuffer = WriteBehindBuffer.getInstance(application);
     }
 
     public LiveData<List<Task>> getAllTasks() {
         return allTasks;
     }
 
+    // 💾 Queue buffered edits and toggles now instead of after the flush delay
+    public void flushPendingWrites() {
+        writeBuffer.flush();
+    }
+
+    // 🗄 --- In-memory task store ---
+
+    // Every task, re-emitted after each write; the first value arrives once the table is loaded
+    public LiveData<TaskStore.Snapshot> getTaskSnapshots() {
+        return taskStore.getSnapshots();
+    }
+
+    // Current row of a task from memory, or null if it is not there (yet); copy it before changing it
+    public Task getStoredTask(int id) {
+        return taskStore.get(id);
+    }
+
+    public LiveData<List<Task>> getTasksInRange(int startDay, int endDay) {
+        return taskDao.getTasksInRange(startDay, endDay);
+    }
+
+    public LiveData<List<Task>> getActiveTasks(int sinceDay) {
+        return taskDao.getActiveTasks(sinceDay);
+    }
+
+    public PagingSource<Integer, TaskWithStats> getPagedActiveTasks(int sinceDay, long today, long nowMinute) {
+        return taskDao.getPagedActiveTasks(sinceDay, today, nowMinute);
+    }
+
+    /**
+     * Which of the given tasks have a completion on any day (blocking). The Tasks tab keeps
+     * one-off reminders until then, however old they are.
+     */
+    public Set<Integer> getEverCompletedTaskIds(List<Long> taskIds) {
+        Set<Integer> ids = new HashSet<>();
+        CompletionMonthDao monthDao = database.completionMonthDao();
+        for (List<Long> chunk : SqlBatches.chunks(taskIds)) {
+            for (long id : monthDao.getEverCompletedTaskIds(chunk)) {
+                ids.add((int) id);
+            }
+        }
+        return ids;
+    }
+
+    // 🗓 --- Calendar heat map ---
+
+    /**
+     * Pending/completed counts for every day of a month: one grouped query for dated tasks,
+     * plus the recurrence engine for repeating reminders checked against their month bitmap.
+     * Blocking: call from a background thread.
+     */
+    public MonthCounts loadMonthCounts(int monthIndex) {
+        int firstDay = EpochDays.ofMonthIndex(monthIndex);
+        int endDay = EpochDays.ofMonthIndex(monthIndex + 1);
+        MonthCounts counts = new MonthCounts(monthIndex);
+
+        database.runInTransaction(() -> {
+            for (DayCount row : taskDao.getDayCounts(firstDay, endDay, monthIndex)) {
+                counts.add(row.getDayOfMonth(), row.getTotal() - row.getCompleted(), row.getCompleted());
+            }
+
+            for (ReminderMonth reminder : taskDao.getRepeatingReminderMonths(endDay, monthIndex)) {
+                RecurrenceRule rule = RecurrenceRule.compile(reminder.getTask());
+                int days = reminder.getDays();
+                rule.forEachOccurrence(firstDay, endDay, day -> {
+                    boolean done = (days & CompletionMonth.dayBit(day)) != 0;
+                    counts.add(EpochDays.dayOfMonth(day), done ? 0 : 1, done ? 1 : 0);
+                });
+            }
+        });
+        return counts;
+    }
+
+    // 🔎 --- Search ---
+
+    /**
+     * Tasks whose title or description contains a word starting with each word of {@code text},
+     * most relevant first, at most {@code limit} of them. Blocking: call from a background thread.
+     */
+    public List<Task> search(String text, int limit) {
+        String match = toPrefixMatch(text);
+        if (match == null) return Collections.emptyList();
+
+        List<TaskSearchHit> hits = taskDao.searchTasks(match);
+        hits.sort(TaskSearchHit.BY_RELEVANCE);
+
+        int count = Math.min(Math.min(limit, SqlBatches.MAX_IN_LIST), hits.size());
+        if (count == 0) return Collections.emptyList();
+
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add((long) hits.get(i).getTaskId());
+        }
+
+        // Rows in rank order: from memory once the store is loaded, else one query by id
+        boolean inMemory = taskStore.isLoaded();
+        Map<Integer, Task> rows = new HashMap<>();
+        if (!inMemory) {
+            for (Task task : taskDao.getTasksByIds(ids)) {
+                rows.put(task.getId(), task);
+            }
+        }
+        List<Task> results = new ArrayList<>(ids.size());
+        for (long id : ids) {
+            Task task = inMemory ? taskStore.get((int) id) : rows.get((int) id);
+            if (task != null) results.add(task);
+        }
+        return results;
+    }
+
+    /**
+     * Turns free text into an FTS prefix query: "Buy mil" -> "buy* mil*" (all words must match).
+     * Characters the FTS tokenizer treats as separators are dropped, so user input can never
+     * form query syntax (quotes, -, OR, NEAR ...). Returns null when no word is left.
+     */
+    static String toPrefixMatch(String text) {
+        if (text == null) return null;
+
+        StringBuilder match = new StringBuilder();
+        StringBuilder word = new StringBuilder();
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i <= lower.length(); i++) {
+            char c = i < lower.length() ? lower.charAt(i) : ' ';
+            // The default tokenizer splits on ASCII non-alphanumerics and keeps all other characters
+            if (c >= 128 || Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else if (word.length() > 0) {
+                if (match.length() > 0) match.append(' ');
+                match.append(word).append('*');
+                word.setLength(0);
+            }
+        }
+        return match.length() > 0 ? match.toString() : null;
+    }
+
+    /**
+     * Registers a Room invalidation observer, e.g. to re-run a query when tasks change.
+     * Must be called off the main thread.
+     */
+    public void addInvalidationObserver(InvalidationTracker.Observer observer) {
+        database.getInvalidationTracker().addObserver(observer);
+    }
+
+    public void removeInvalidationObserver(InvalidationTracker.Observer observer) {
+        database.getInvalidationTracker().removeObserver(observer);
+    }
+
+    public LiveData<Integer> getTaskCount() {
+        return taskDao.getTaskCount();
+    }
+
+    /**
+     * Current row of one task, or null if it no longer exists. Served from memory once the
+     * store is loaded, else queried: call from a background thread. Copy the row before changing it.
+     */
+    public Task getTaskById(int id) {
+        Task task = taskStore.get(id);
+        // Not loaded yet, or a row inserted a moment ago that is not in memory yet
+        return task != null ? task : taskDao.getTaskById(id);
+    }
+
     public LiveData<List<Task>> getCompletedTasks() {
         return completedTasks;
     }
@@ -41,18 +242,177 @@ public class TaskRepository {
     }
 
     public void insert(Task task) {
-        executorService.execute(() -> taskDao.insertTask(task));
+        insert(task, null);
     }
 
+    /**
+     * Inserts the task and hands its generated id to {@code listener} on the same background
+     * thread, so follow-up work (e.g. scheduling its reminder) is chained after the insert.
+     */
+    public void insert(Task task, OnTaskInsertedListener listener) {
+        databaseExecutor.execute(DatabaseExecutor.Priority.USER, () -> {
+            taskStore.expectOwnWrite();
+            long id = taskDao.insertTask(task);
+            Task row = new Task(task);
+            row.setId((int) id);
+            taskStore.put(row);
+            if (listener != null) {
+                listener.onTaskInserted(id);
+            }
+        });
+    }
+
+    // ✍️ Coalesced with other updates of the same task and written in the next buffer flush,
+    // which hands the committed row to the task store like every other write.
     public void update(Task task) {
-        executorService.execute(() -> taskDao.updateTask(task));
+        writeBuffer.updateTask(task);
     }
 
     public void delete(Task task) {
-        executorService.execute(() -> taskDao.deleteTask(task));
+        writeBuffer.discard(task.getId());
+        databaseExecutor.execute(DatabaseExecutor.Priority.USER, () -> {
+            taskStore.expectOwnWrite();
+            taskDao.deleteTask(task);
+            taskStore.remove(task.getId());
+        });
     }
 
     public void deleteById(int id) {
-        executorService.execute(() -> taskDao.deleteTaskById(id));
+        writeBuffer.discard(id);
+        databaseExecutor.execute(DatabaseExecutor.Priority.USER, () -> {
+            taskStore.expectOwnWrite();
+            taskDao.deleteTaskById(id);
+            taskStore.remove(id);
+        });
+    }
+
+    // 📦 --- Bulk operations: one transaction (one commit) per call ---
+
+    /**
+     * Inserts (or restores, keeping their ids) many tasks at once, e.g. to undo a bulk delete.
+     */
+    public void insertAll(List<Task> tasks) {
+        List<Task> rows = new ArrayList<>(tasks);
+        writeBuffer.flush(); // Keep buffered edits ordered before this write
+        databaseExecutor.execute(DatabaseExecutor.Priority.USER, () -> {
+            taskStore.expectOwnWrite();
+            long[] ids = database.runInTransaction(() -> taskDao.insertTasks(rows));
+
+            // 🗄 Memory follows only once the transaction has committed
+            List<Task> stored = new ArrayList<>(rows.size());
+            for (int i = 0; i < ids.length; i++) {
+                Task row = new Task(rows.get(i));
+                row.setId((int) ids[i]);
+                stored.add(row);
+            }
+            taskStore.putAll(stored);
+        });
+    }
+
+    public void updateAll(List<Task> tasks) {
+        List<Task> rows = new ArrayList<>(tasks);
+        writeBuffer.flush();
+        databaseExecutor.execute(DatabaseExecutor.Priority.USER, () -> {
+            taskStore.expectOwnWrite();
+            database.runInTransaction(() -> {
+                taskDao.updateTasks(rows);
+                for (Task task : rows) {
+                    streakTracker.onTaskChanged(task.getId());
+                }
+            });
+            taskStore.putAll(rows);
+        });
+    }
+
+    public void deleteAll(List<Task> tasks) {
+        deleteAll(tasks, null);
+    }
+
+    /**
+     * Deletes the tasks and hands {@code listener} the rows exactly as they were stored, read
+     * in the same transaction. Restore those for an undo: the callers' copies may be render
+     * rows (e.g. a reminder's isCompleted set from today's completion).
+     */
+    public void deleteAll(List<Task> tasks, OnTasksDeletedListener listener) {
+        List<Integer> ids = new ArrayList<>(tasks.size());
+        List<Long> keys = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            writeBuffer.discard(task.getId());
+            ids.add(task.getId());
+            keys.add((long) task.getId());
+        }
+        databaseExecutor.execute(DatabaseExecutor.Priority.USER, () -> {
+            taskStore.expectOwnWrite();
+            List<Task> deleted = new ArrayList<>(ids.size());
+            database.runInTransaction(() -> {
+                if (listener != null) {
+                    for (List<Long> chunk : SqlBatches.chunks(keys)) {
+                        deleted.addAll(taskDao.getTasksByIds(chunk));
+                    }
+                }
+                for (List<Integer> chunk : SqlBatches.chunks(ids)) {
+                    taskDao.deleteTasksByIds(chunk);
+                }
+            });
+            taskStore.removeAll(ids);
+            if (listener != null) {
+                listener.onTasksDeleted(deleted);
+            }
+        });
+    }
+
+    /**
+     * Marks many tasks completed (or not) on the given day in one transaction: reminders
+     * through their per-day completion rows, every other task through its isCompleted flag.
+     */
+    public void setCompleted(List<Task> tasks, long date, boolean completed) {
+        List<Integer> taskIds = new ArrayList<>();
+        List<Long> reminderIds = new ArrayList<>();
+        for (Task task : tasks) {
+            if (task.getType() == TaskType.REMINDER) {
+                reminderIds.add((long) task.getId());
+            } else {
+                taskIds.add(task.getId());
+            }
+        }
+
+        writeBuffer.flush();
+        long completedAt = System.currentTimeMillis();
+        databaseExecutor.execute(DatabaseExecutor.Priority.USER, () -> {
+            if (!taskIds.isEmpty()) taskStore.expectOwnWrite();
+            database.runInTransaction(() -> {
+                for (List<Integer> chunk : SqlBatches.chunks(taskIds)) {
+                    taskDao.setTasksCompleted(chunk, completed);
+                }
+
+                List<Long> wereCompleted = completionStore.getCompletedTaskIds(reminderIds, date);
+
+                if (completed) {
+                    List<TaskCompletion> rows = new ArrayList<>(reminderIds.size());
+                    for (long id : reminderIds) {
+                        rows.add(new TaskCompletion(id, date, true, completedAt));
+                    }
+                    completionStore.markAll(rows);
+                } else {
+                    completionStore.markUncompleted(reminderIds, date);
+                }
+
+                // 🔥 Statistics of the reminders whose state actually changed
+                Set<Long> changed = new HashSet<>(reminderIds);
+                if (completed) {
+                    changed.removeAll(wereCompleted);
+                } else {
+                    changed.retainAll(wereCompleted);
+                }
+                for (long id : changed) {
+                    if (completed) {
+                        streakTracker.onCompleted(id, date);
+                    } else {
+                        streakTracker.onUncompleted(id, date);
+                    }
+                }
+            });
+            if (!taskIds.isEmpty()) taskStore.setCompleted(taskIds, completed);
+        });
     }
 }
@@ -0,0 +1,42 @@
+package com.prajwaldarekar.dailytask.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.prajwaldarekar.dailytask.models.TaskStats;
+
+import java.util.List;
+
+/**
+ * DAO for per-task completion statistics. All calls are blocking; writes belong
+ * on the database writer thread, inside the transaction that changed the completions.
+ */
+@Dao
+public interface TaskStatsDao {
+
+    /**
+     * Insert or replace the statistics row of a task.
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(TaskStats stats);
+
+    /**
+     * Statistics of one task (primary key lookup), or null when it was never completed.
+     */
+    @Query("SELECT * FROM task_stats WHERE task_id = :taskId")
+    TaskStats getStats(long taskId);
+
+    /**
+     * Statistics of several tasks; tasks without completions have no row.
+     */
+    @Query("SELECT * FROM task_stats WHERE task_id IN (:taskIds)")
+    List<TaskStats> getStatsForTasks(List<Long> taskIds);
+
+    @Query("DELETE FROM task_stats WHERE task_id = :taskId")
+    void delete(long taskId);
+
+    @Query("DELETE FROM task_stats")
+    void deleteAll();
+}
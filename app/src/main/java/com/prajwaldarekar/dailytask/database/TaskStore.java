@@ -0,0 +1,284 @@
+package com.prajwaldarekar.dailytask.database;
+
+import android.content.Context;
+import android.util.SparseArray;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.room.InvalidationTracker;
+
+import com.prajwaldarekar.dailytask.models.Task;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * 🗄 App-wide in-memory copy of the task table.
+ *
+ * The table is read once on the database thread into an id-indexed map. From then on
+ * every write to tasks is applied here once it has committed, on that same thread, so
+ * the memory copy follows Room in commit order. Readers get immutable {@link Snapshot}s
+ * and never query. Room is only re-read when something outside the repository changed
+ * the table, which the invalidation tracker reports.
+ *
+ * A write only touches the rows it changes: the date order is kept in place by binary
+ * search, so nothing is re-sorted. Snapshots are copied from the master on the store's own
+ * thread, one per burst of writes, so writers (the main thread included) never pay for them.
+ */
+public final class TaskStore {
+
+    // Order of the DAO's list queries, made total by the id
+    private static final Comparator<Task> BY_DATE = (a, b) -> {
+        if (a.getEpochDay() != b.getEpochDay()) return Integer.compare(a.getEpochDay(), b.getEpochDay());
+        if (a.getMinuteOfDay() != b.getMinuteOfDay()) return Integer.compare(a.getMinuteOfDay(), b.getMinuteOfDay());
+        return Integer.compare(a.getId(), b.getId());
+    };
+
+    /**
+     * Immutable view of every task at one point in time. The rows are shared between
+     * readers: copy one (see {@link Task#Task(Task)}) before changing it.
+     */
+    public static final class Snapshot {
+        private final SparseArray<Task> byId;
+        private final List<Task> tasks;     // By epoch day, minute of day, id
+
+        private Snapshot(SparseArray<Task> byId, List<Task> sorted) {
+            this.byId = byId;
+            this.tasks = Collections.unmodifiableList(sorted);
+        }
+
+        // 🆔 Row of a task, or null if it does not exist
+        @Nullable
+        public Task get(int id) {
+            return byId.get(id);
+        }
+
+        public int size() {
+            return byId.size();
+        }
+
+        // Every task, ordered by date and time like the DAO's list queries
+        public List<Task> getTasks() {
+            return tasks;
+        }
+
+        // Tasks matching {@code filter}, in the same order
+        public List<Task> select(Predicate<Task> filter) {
+            List<Task> result = new ArrayList<>();
+            for (Task task : tasks) {
+                if (filter.test(task)) result.add(task);
+            }
+            return result;
+        }
+    }
+
+    private static volatile TaskStore INSTANCE;
+
+    private final AppDatabase database;
+    private final DatabaseExecutor databaseExecutor = DatabaseExecutor.getInstance();
+
+    // 🧠 Master copy, guarded by this; stays empty and ignores writes until loaded.
+    // Rows are never changed in place, only replaced, so they can be shared with readers.
+    private final SparseArray<Task> rows = new SparseArray<>();
+    private final ArrayList<Task> ordered = new ArrayList<>();   // Same rows, BY_DATE
+    private boolean loaded;
+
+    private final CountDownLatch firstLoad = new CountDownLatch(1);
+    private final MutableLiveData<Snapshot> snapshots = new MutableLiveData<>();
+
+    // 📸 Snapshots are built here, coalesced: writes arriving meanwhile share the next one
+    private final ExecutorService publisher = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "task-store"));
+    private final AtomicBoolean publishQueued = new AtomicBoolean();
+
+    private final AtomicBoolean loadRequested = new AtomicBoolean();
+    private final AtomicBoolean loadQueued = new AtomicBoolean();
+    private final AtomicBoolean ownWrite = new AtomicBoolean();
+    private boolean observerAdded;      // Only touched on the database thread
+    private final InvalidationTracker.Observer tasksObserver = new InvalidationTracker.Observer("tasks") {
+        @Override
+        public void onInvalidated(@NonNull Set<String> tables) {
+            // Our own commits are already in memory; only outside changes need a re-read.
+            // Best effort: an outside change folded into the same notification is absorbed too.
+            if (!ownWrite.getAndSet(false)) {
+                queueLoad();
+            }
+        }
+    };
+
+    private TaskStore(Context context) {
+        database = AppDatabase.getInstance(context);
+    }
+
+    public static TaskStore getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (TaskStore.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new TaskStore(context.getApplicationContext());
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Starts the one-time background load of the table; later calls do nothing.
+     * Processes that never call this (e.g. a cold reminder broadcast) never pay for it.
+     */
+    public void load() {
+        if (loadRequested.compareAndSet(false, true)) {
+            queueLoad();
+        }
+    }
+
+    /**
+     * Blocks until the first load has finished or the timeout has passed; never call on the
+     * main thread. Returns whether the table is loaded. Does not start the load itself.
+     */
+    public boolean awaitLoaded(long timeout, TimeUnit unit) throws InterruptedException {
+        return firstLoad.await(timeout, unit);
+    }
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * 🆔 Current row of a task, including writes not yet published in a snapshot; null if the
+     * task does not exist or the table is not loaded yet. Shared: copy it before changing it.
+     */
+    @Nullable
+    public synchronized Task get(int id) {
+        return rows.get(id);
+    }
+
+    // Emits a new snapshot after the load and after changes
+    public LiveData<Snapshot> getSnapshots() {
+        return snapshots;
+    }
+
+    // ✍️ --- Write-through from the repository, normally on the database thread once the DAO write has committed ---
+
+    /**
+     * Marks the next tasks invalidation as our own. Call before writing tasks through a DAO.
+     */
+    void expectOwnWrite() {
+        ownWrite.set(true);
+    }
+
+    // Inserts or replaces rows; the store keeps its own copies
+    void putAll(Collection<Task> tasks) {
+        synchronized (this) {
+            if (!loaded) return;
+            for (Task task : tasks) {
+                replace(new Task(task));
+            }
+        }
+        publish();
+    }
+
+    void put(Task task) {
+        putAll(Collections.singletonList(task));
+    }
+
+    void removeAll(Collection<Integer> ids) {
+        synchronized (this) {
+            if (!loaded) return;
+            for (int id : ids) {
+                Task old = rows.get(id);
+                if (old != null) {
+                    ordered.remove(Collections.binarySearch(ordered, old, BY_DATE));
+                    rows.remove(id);
+                }
+            }
+        }
+        publish();
+    }
+
+    void remove(int id) {
+        removeAll(Collections.singletonList(id));
+    }
+
+    void setCompleted(Collection<Integer> ids, boolean completed) {
+        synchronized (this) {
+            if (!loaded) return;
+            for (int id : ids) {
+                Task row = rows.get(id);
+                if (row != null && row.isCompleted() != completed) {
+                    Task changed = new Task(row);    // Published snapshots keep the old row
+                    changed.setCompleted(completed);
+                    replace(changed);
+                }
+            }
+        }
+        publish();
+    }
+
+    // Puts a row into both indexes; guarded by this. Only the positions that move are shifted.
+    private void replace(Task row) {
+        Task old = rows.get(row.getId());
+        if (old != null) {
+            ordered.remove(Collections.binarySearch(ordered, old, BY_DATE));
+        }
+        rows.put(row.getId(), row);
+        int at = Collections.binarySearch(ordered, row, BY_DATE);
+        ordered.add(-at - 1, row);
+    }
+
+    // 🔄 --- Loading ---
+
+    private void queueLoad() {
+        if (loadQueued.compareAndSet(false, true)) {
+            // Same thread as every write, so the read lands between two writes, never inside one
+            databaseExecutor.execute(DatabaseExecutor.Priority.MAINTENANCE, this::reload);
+        }
+    }
+
+    private void reload() {
+        loadQueued.set(false);
+        if (!observerAdded) {
+            database.getInvalidationTracker().addObserver(tasksObserver);
+            observerAdded = true;
+        }
+
+        List<Task> all = database.taskDao().loadAllTasks();
+        all.sort(BY_DATE);
+        synchronized (this) {
+            rows.clear();
+            for (Task task : all) {
+                rows.put(task.getId(), task);
+            }
+            ordered.clear();
+            ordered.addAll(all);
+            loaded = true;
+        }
+        publish();
+        firstLoad.countDown();
+    }
+
+    private void publish() {
+        if (!publishQueued.compareAndSet(false, true)) return;
+
+        publisher.execute(() -> {
+            publishQueued.set(false);   // Later writes queue the next snapshot
+            Snapshot next;
+            synchronized (this) {
+                // Two array copies; the order is already maintained
+                next = new Snapshot(rows.clone(), new ArrayList<>(ordered));
+            }
+            snapshots.postValue(next);
+        });
+    }
+}
@@ -0,0 +1,171 @@
+package com.prajwaldarekar.dailytask.database;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.prajwaldarekar.dailytask.analytics.StreakTracker;
+import com.prajwaldarekar.dailytask.models.Task;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ✍️ Write-behind buffer for rapid, repeated edits such as checkbox toggles.
+ *
+ * Completion toggles are keyed by (task, day) and task updates by task id; only the
+ * last state of each key is kept. Everything buffered within {@link #FLUSH_DELAY_MILLIS}
+ * is written in one transaction, so ticking off a dozen items costs one commit and one
+ * round of LiveData invalidation instead of a dozen. The screens call {@link #flush()}
+ * when they pause, because the delayed flush is not guaranteed to run once the app is
+ * in the background.
+ */
+public final class WriteBehindBuffer {
+
+    private static final long FLUSH_DELAY_MILLIS = 300;
+
+    private static volatile WriteBehindBuffer INSTANCE;
+
+    private final AppDatabase database;
+    private final CompletionStore completionStore;
+    private final StreakTracker streakTracker;
+    private final TaskStore taskStore;
+    private final DatabaseExecutor databaseExecutor = DatabaseExecutor.getInstance();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable flushRunnable = this::flush;
+
+    // 🧺 Pending writes, guarded by this
+    private Map<CompletionKey, Long> pendingCompletions = new LinkedHashMap<>();  // null value = unmark
+    private Map<Integer, Task> pendingTaskUpdates = new LinkedHashMap<>();
+    private boolean flushScheduled;
+
+    private WriteBehindBuffer(Context context) {
+        database = AppDatabase.getInstance(context);
+        completionStore = new CompletionStore(database);
+        streakTracker = new StreakTracker(database);
+        taskStore = TaskStore.getInstance(context);
+    }
+
+    public static WriteBehindBuffer getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (WriteBehindBuffer.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new WriteBehindBuffer(context.getApplicationContext());
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Buffer the completion state of a task on a day (epoch millis at 00:00).
+     */
+    public synchronized void setCompleted(long taskId, long date, boolean completed) {
+        pendingCompletions.put(new CompletionKey(taskId, date), completed ? System.currentTimeMillis() : null);
+        scheduleFlush();
+    }
+
+    /**
+     * Buffer a full-row task update; a later update of the same task replaces it.
+     */
+    public synchronized void updateTask(Task task) {
+        pendingTaskUpdates.put(task.getId(), task);
+        scheduleFlush();
+    }
+
+    /**
+     * Drop everything still pending for a task, e.g. because it is being deleted.
+     */
+    public synchronized void discard(long taskId) {
+        pendingTaskUpdates.remove((int) taskId);
+        discardCompletions(taskId);
+    }
+
+    /**
+     * Drop the pending completion toggles of a task, on every day.
+     */
+    public synchronized void discardCompletions(long taskId) {
+        Iterator<CompletionKey> keys = pendingCompletions.keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next().taskId == taskId) {
+                keys.remove();
+            }
+        }
+    }
+
+    /**
+     * Queue everything buffered so far on the database executor right away.
+     * Writes submitted after this call are ordered after the buffered ones.
+     */
+    public void flush() {
+        Map<CompletionKey, Long> completions;
+        Map<Integer, Task> taskUpdates;
+        synchronized (this) {
+            mainHandler.removeCallbacks(flushRunnable);
+            flushScheduled = false;
+            if (pendingCompletions.isEmpty() && pendingTaskUpdates.isEmpty()) return;
+
+            completions = pendingCompletions;
+            taskUpdates = pendingTaskUpdates;
+            pendingCompletions = new LinkedHashMap<>();
+            pendingTaskUpdates = new LinkedHashMap<>();
+        }
+
+        databaseExecutor.execute(DatabaseExecutor.Priority.USER, () -> {
+            if (!taskUpdates.isEmpty()) taskStore.expectOwnWrite();
+            database.runInTransaction(() -> {
+                TaskDao taskDao = database.taskDao();
+                for (Task task : taskUpdates.values()) {
+                    taskDao.updateTask(task);
+                    streakTracker.onTaskChanged(task.getId());
+                }
+
+                // 🔥 Statistics change in the same transaction, only on real state changes
+                for (Map.Entry<CompletionKey, Long> entry : completions.entrySet()) {
+                    CompletionKey key = entry.getKey();
+                    boolean wasCompleted = completionStore.isCompleted(key.taskId, key.date);
+                    if (entry.getValue() != null) {
+                        completionStore.markCompleted(key.taskId, key.date, entry.getValue());
+                        if (!wasCompleted) streakTracker.onCompleted(key.taskId, key.date);
+                    } else {
+                        completionStore.markUncompleted(key.taskId, key.date);
+                        if (wasCompleted) streakTracker.onUncompleted(key.taskId, key.date);
+                    }
+                }
+            });
+            // 🗄 Committed: the store takes the rows in commit order
+            if (!taskUpdates.isEmpty()) taskStore.putAll(taskUpdates.values());
+        });
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            mainHandler.postDelayed(flushRunnable, FLUSH_DELAY_MILLIS);
+        }
+    }
+
+    private static final class CompletionKey {
+        final long taskId;
+        final long date;
+
+        CompletionKey(long taskId, long date) {
+            this.taskId = taskId;
+            this.date = date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CompletionKey)) return false;
+            CompletionKey other = (CompletionKey) o;
+            return taskId == other.taskId && date == other.date;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(taskId) + Long.hashCode(date);
+        }
+    }
+}
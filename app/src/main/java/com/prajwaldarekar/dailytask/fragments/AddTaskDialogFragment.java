@@ -38,15 +38,26 @@ import java.util.Locale;
 
 public class AddTaskDialogFragment extends DialogFragment {
 
+    private static final String ARG_TASK_ID = "task_id";
+    private static final String STATE_DATE_TIME = "selected_date_time";
+    private static final int NEW_TASK = -1;
+
     private FragmentAddTaskDialogBinding binding;
     private TaskViewModel taskViewModel;
-    private Task existingTask;
+    private int taskId = NEW_TASK;
+    private Task existingTask;      // Our own copy of the row being edited, once loaded
     private final Calendar selectedDateTime = Calendar.getInstance();
 
-    public static AddTaskDialogFragment newInstance(@Nullable Task task) {
+    // ➕ Dialog for a new task
+    public static AddTaskDialogFragment newInstance() {
+        return newInstance(NEW_TASK);
+    }
+
+    // ✏️ Dialog editing a stored task; only the id travels in the arguments
+    public static AddTaskDialogFragment newInstance(int taskId) {
         AddTaskDialogFragment fragment = new AddTaskDialogFragment();
         Bundle args = new Bundle();
-        args.putSerializable("task", task);
+        args.putInt(ARG_TASK_ID, taskId);
         fragment.setArguments(args);
         return fragment;
     }
@@ -63,35 +74,65 @@ public class AddTaskDialogFragment extends DialogFragment {
         taskViewModel = new ViewModelProvider(requireActivity()).get(TaskViewModel.class);
 
         if (getArguments() != null) {
-            existingTask = (Task) getArguments().getSerializable("task");
+            taskId = getArguments().getInt(ARG_TASK_ID, NEW_TASK);
         }
 
-        setupUI();
+        setupUI(savedInstanceState);
         setupListeners();
     }
 
-    private void setupUI() {
+    @Override
+    public void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putLong(STATE_DATE_TIME, selectedDateTime.getTimeInMillis());
+    }
+
+    private void setupUI(@Nullable Bundle savedInstanceState) {
         setupRepeatModeSpinner();
         setupTaskTypeSpinner();
 
-        if (existingTask != null) {
-            binding.editTextTitle.setText(existingTask.getTitle());
-            binding.editTextDescription.setText(existingTask.getDescription());
+        // 🔁 After recreation the fields restore themselves; only the picked date/time needs help
+        boolean restoring = savedInstanceState != null;
+        selectedDateTime.setTimeInMillis(restoring
+                ? savedInstanceState.getLong(STATE_DATE_TIME, System.currentTimeMillis())
+                : System.currentTimeMillis());
+        updateDateTimeLabels();
 
-            selectedDateTime.setTime(existingTask.getDate() != null ? existingTask.getDate() : Calendar.getInstance().getTime());
-            updateDateTimeLabels();
+        if (taskId == NEW_TASK) return;
 
-            binding.spinnerType.setSelection(existingTask.getType().ordinal());
+        // ⏳ Saving waits for the row, so an edit never turns into an insert
+        binding.buttonSave.setEnabled(false);
+        taskViewModel.getTask(taskId, task -> {
+            if (binding == null) return;    // View already gone
 
-            if (existingTask.getType() == TaskType.REMINDER) {
-                binding.layoutRepeat.setVisibility(View.VISIBLE);
-                binding.spinnerRepeatMode.setSelection(existingTask.getRepeatMode().ordinal());
-            } else {
-                binding.layoutRepeat.setVisibility(View.GONE);
+            if (task == null) {
+                Toast.makeText(requireContext(), "Task no longer exists", Toast.LENGTH_SHORT).show();
+                dismissAllowingStateLoss();
+                return;
+            }
+
+            existingTask = task;
+            if (!restoring) {
+                bindTask(task);
             }
+            binding.buttonSave.setEnabled(true);
+        });
+    }
+
+    private void bindTask(Task task) {
+        binding.editTextTitle.setText(task.getTitle());
+        binding.editTextDescription.setText(task.getDescription());
+
+        selectedDateTime.setTimeInMillis(task.getDateMillis());
+        updateDateTimeLabels();
+
+        binding.spinnerType.setSelection(task.getType().ordinal());
+
+        if (task.getType() == TaskType.REMINDER) {
+            binding.layoutRepeat.setVisibility(View.VISIBLE);
+            binding.spinnerRepeatMode.setSelection(task.getRepeatMode().ordinal());
         } else {
-            selectedDateTime.setTimeInMillis(System.currentTimeMillis());
-            updateDateTimeLabels();
+            binding.layoutRepeat.setVisibility(View.GONE);
         }
     }
 
@@ -204,8 +245,7 @@ public class AddTaskDialogFragment extends DialogFragment {
             if (existingTask != null) {
                 existingTask.setTitle(title);
                 existingTask.setDescription(description);
-                existingTask.setDate(selectedDateTime.getTime());
-                existingTask.setTime(selectedDateTime.getTime());
+                existingTask.setDate(selectedDateTime.getTime());    // Day and time of day
                 existingTask.setType(type);
                 existingTask.setRepeatMode(repeatMode);
 
@@ -220,14 +260,21 @@ public class AddTaskDialogFragment extends DialogFragment {
                 Task newTask = new Task();
                 newTask.setTitle(title);
                 newTask.setDescription(description);
-                newTask.setDate(selectedDateTime.getTime());
-                newTask.setTime(selectedDateTime.getTime());
+                newTask.setDate(selectedDateTime.getTime());    // Day and time of day
                 newTask.setType(type);
                 newTask.setRepeatMode(repeatMode);
                 newTask.setCompleted(false);
                 newTask.setCreatedAt(System.currentTimeMillis());
 
-                taskViewModel.insert(newTask);
+                // 🆔 Schedule on the insert's background thread, once the real id is known
+                Context appContext = requireContext().getApplicationContext();
+                boolean isReminder = type == TaskType.REMINDER;
+                taskViewModel.insert(newTask, id -> {
+                    if (isReminder) {
+                        newTask.setId((int) id);
+                        ReminderUtils.scheduleReminder(appContext, newTask);
+                    }
+                });
 
                 if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
                     AlarmManager alarmManager = (AlarmManager) requireContext().getSystemService(Context.ALARM_SERVICE);
@@ -237,10 +284,6 @@ public class AddTaskDialogFragment extends DialogFragment {
                     }
                 }
 
-                if (type == TaskType.REMINDER) {
-                    ReminderUtils.scheduleReminder(requireContext(), newTask);
-                }
-
                 Toast.makeText(requireContext(), "Task added", Toast.LENGTH_SHORT).show();
             }
 
@@ -1,42 +1,66 @@
 package com.prajwaldarekar.dailytask.fragments;
 
+import android.graphics.Typeface;
 import android.os.Bundle;
+import android.view.Gravity;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.LinearLayout;
+import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+import androidx.core.graphics.ColorUtils;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
+import com.kizitonwose.calendarview.model.CalendarDay;
+import com.kizitonwose.calendarview.model.DayOwner;
+import com.kizitonwose.calendarview.ui.DayBinder;
+import com.kizitonwose.calendarview.ui.ViewContainer;
+import com.prajwaldarekar.dailytask.R;
 import com.prajwaldarekar.dailytask.adapters.TaskAdapter;
+import com.prajwaldarekar.dailytask.databinding.CalendarDayBinding;
 import com.prajwaldarekar.dailytask.databinding.FragmentCalendarBinding;
+import com.prajwaldarekar.dailytask.models.MonthCounts;
 import com.prajwaldarekar.dailytask.models.Task;
-import com.prajwaldarekar.dailytask.models.TaskCompletion;
 import com.prajwaldarekar.dailytask.models.TaskType;
-import com.prajwaldarekar.dailytask.utils.TaskUtils;
+import com.prajwaldarekar.dailytask.recurrence.EpochDays;
 import com.prajwaldarekar.dailytask.viewmodel.TaskCompletionViewModel;
 import com.prajwaldarekar.dailytask.viewmodel.TaskViewModel;
 
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.time.temporal.WeekFields;
 import java.util.Calendar;
 import java.util.Date;
-import java.util.List;
 import java.util.Locale;
 
+import kotlin.Unit;
+
 public class CalendarFragment extends Fragment {
 
+    // 🗓 Months reachable by swiping, either side of the current one
+    private static final int MONTHS_AROUND = 60;
+
+    // Heat map background alpha for the quietest and the busiest day of the month
+    private static final int MIN_HEAT_ALPHA = 40;
+    private static final int MAX_HEAT_ALPHA = 200;
+
     private FragmentCalendarBinding binding;
     private TaskAdapter taskAdapter;
     private TaskViewModel taskViewModel;
     private TaskCompletionViewModel taskCompletionViewModel;
 
     private final Calendar selectedDate = Calendar.getInstance();
-    private List<Task> allTasks = new ArrayList<>();
-    private List<TaskCompletion> taskCompletionsForDate = new ArrayList<>();
+    private final DateTimeFormatter monthFormat = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.getDefault());
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
@@ -67,8 +91,9 @@ public class CalendarFragment extends Fragment {
                     taskCompletionViewModel.deleteCompletion(task.getId(), dateEpoch);
                 }
             } else {
-                task.setCompleted(isChecked);
-                taskViewModel.update(task);
+                Task updated = new Task(task);
+                updated.setCompleted(isChecked);
+                taskViewModel.update(updated);
             }
         });
 
@@ -80,101 +105,88 @@ public class CalendarFragment extends Fragment {
         taskViewModel = new ViewModelProvider(requireActivity()).get(TaskViewModel.class);
         taskCompletionViewModel = new ViewModelProvider(requireActivity()).get(TaskCompletionViewModel.class);
 
-        taskViewModel.getAllTasks().observe(getViewLifecycleOwner(), tasks -> {
-            allTasks = tasks != null ? tasks : new ArrayList<>();
-            filterTasksByDate();
-        });
+        taskViewModel.setCalendarDay(EpochDays.fromMillis(getSelectedDateEpoch()));
 
-        observeCompletionsForSelectedDate();
-    }
-
-    private void setupCalendarView() {
-        binding.calendarView.setOnDateChangeListener((view, year, month, dayOfMonth) -> {
-            selectedDate.set(year, month, dayOfMonth);
+        // 📅 Filtered and sorted off the main thread by TaskViewModel
+        taskViewModel.getCalendarDayTasks().observe(getViewLifecycleOwner(), tasks -> {
+            taskAdapter.setTasks(tasks);
             updateDateHeader();
-            observeCompletionsForSelectedDate();
+            if (tasks == null || tasks.isEmpty()) {
+                binding.textViewSelectedDate.setText(formatDate(selectedDate.getTime()) + " (No tasks)");
+            }
         });
     }
 
-    private void observeCompletionsForSelectedDate() {
-        taskCompletionViewModel.getAllForDate(getSelectedDateEpoch())
-                .observe(getViewLifecycleOwner(), completions -> {
-                    taskCompletionsForDate = completions != null ? completions : new ArrayList<>();
-                    filterTasksByDate();
-                });
-    }
-
-    private void updateDateHeader() {
-        binding.textViewSelectedDate.setText("Tasks for: " + formatDate(selectedDate.getTime()));
-    }
-
-    private void filterTasksByDate() {
-        Date selected = selectedDate.getTime();
-        long selectedEpoch = getSelectedDateEpoch();
-        List<Task> filteredTasks = new ArrayList<>();
-
-        for (Task task : allTasks) {
-            boolean shouldShow = false;
+    private void setupCalendarView() {
+        DayOfWeek firstDayOfWeek = WeekFields.of(Locale.getDefault()).getFirstDayOfWeek();
+        setupWeekDayLabels(firstDayOfWeek);
+
+        binding.calendarView.setDayBinder(new DayBinder<DayViewContainer>() {
+            @NonNull
+            @Override
+            public DayViewContainer create(@NonNull View view) {
+                return new DayViewContainer(view);
+            }
 
-            if (task.getType() == TaskType.REMINDER) {
-                Date effectiveDate = TaskUtils.getEffectiveDisplayDate(task, selected);
+            @Override
+            public void bind(@NonNull DayViewContainer container, @NonNull CalendarDay day) {
+                container.bind(day);
+            }
+        });
 
-                if (isSameDay(effectiveDate, selected)) {
-                    shouldShow = true;
-                    task.setCompleted(isTaskMarkedCompleted(task.getId(), selectedEpoch));
-                    task.setDisplayDate(effectiveDate);
-                }
+        // 🔁 Counts of the visible month and its neighbours are computed in the background
+        binding.calendarView.setMonthScrollListener(month -> {
+            YearMonth yearMonth = month.getYearMonth();
+            binding.textViewMonth.setText(monthFormat.format(yearMonth));
+            taskViewModel.setVisibleMonth(monthIndexOf(yearMonth));
+            return Unit.INSTANCE;
+        });
+        taskViewModel.getLoadedMonthCounts().observe(getViewLifecycleOwner(), counts -> {
+            binding.calendarView.notifyCalendarChanged();
+        });
 
-            } else {
-                if (isSameDay(task.getDate(), selected)) {
-                    shouldShow = true;
-                    task.setDisplayDate(task.getDate());
-                }
-            }
+        YearMonth currentMonth = YearMonth.from(getSelectedLocalDate());
+        binding.textViewMonth.setText(monthFormat.format(currentMonth));
+        taskViewModel.setVisibleMonth(monthIndexOf(currentMonth));
+        binding.calendarView.setup(currentMonth.minusMonths(MONTHS_AROUND),
+                currentMonth.plusMonths(MONTHS_AROUND), firstDayOfWeek);
+        binding.calendarView.scrollToMonth(currentMonth);
+    }
 
-            if (shouldShow) {
-                filteredTasks.add(task);
-            }
+    private void setupWeekDayLabels(DayOfWeek firstDayOfWeek) {
+        for (int i = 0; i < 7; i++) {
+            TextView label = new TextView(requireContext());
+            label.setGravity(Gravity.CENTER);
+            label.setText(firstDayOfWeek.plus(i).getDisplayName(TextStyle.SHORT, Locale.getDefault()));
+            binding.layoutWeekDays.addView(label,
+                    new LinearLayout.LayoutParams(0, ViewGroup.LayoutParams.WRAP_CONTENT, 1f));
         }
+    }
 
-        // ✅ Sort: Incomplete > Due > Completed
-        filteredTasks.sort((t1, t2) -> {
-            boolean t1Completed = t1.isCompleted();
-            boolean t2Completed = t2.isCompleted();
-
-            // Incomplete first
-            if (t1Completed != t2Completed) {
-                return t1Completed ? 1 : -1;
-            }
+    private void selectDate(LocalDate date) {
+        LocalDate previous = getSelectedLocalDate();
+        if (previous.equals(date)) return;
 
-            // If both same completion state, compare by time (earlier due time comes first)
-            return Long.compare(t1.getDisplayDate().getTime(), t2.getDisplayDate().getTime());
-        });
+        selectedDate.set(date.getYear(), date.getMonthValue() - 1, date.getDayOfMonth());
+        taskViewModel.setCalendarDay(EpochDays.fromMillis(getSelectedDateEpoch()));
+        updateDateHeader();
 
-        taskAdapter.setTasks(filteredTasks);
+        binding.calendarView.notifyDateChanged(previous, DayOwner.THIS_MONTH);
+        binding.calendarView.notifyDateChanged(date, DayOwner.THIS_MONTH);
+    }
 
-        if (filteredTasks.isEmpty()) {
-            binding.textViewSelectedDate.setText(formatDate(selected) + " (No tasks)");
-        }
+    private LocalDate getSelectedLocalDate() {
+        return LocalDate.of(selectedDate.get(Calendar.YEAR),
+                selectedDate.get(Calendar.MONTH) + 1,
+                selectedDate.get(Calendar.DAY_OF_MONTH));
     }
 
-    private boolean isTaskMarkedCompleted(long taskId, long dateEpoch) {
-        for (TaskCompletion completion : taskCompletionsForDate) {
-            if (completion.getTaskId() == taskId && completion.getDate() == dateEpoch) {
-                return completion.isCompleted();
-            }
-        }
-        return false;
+    private static int monthIndexOf(YearMonth month) {
+        return EpochDays.monthIndex(EpochDays.of(month.getYear(), month.getMonthValue(), 1));
     }
 
-    private boolean isSameDay(Date d1, Date d2) {
-        if (d1 == null || d2 == null) return false;
-        Calendar c1 = Calendar.getInstance();
-        Calendar c2 = Calendar.getInstance();
-        c1.setTime(d1);
-        c2.setTime(d2);
-        return c1.get(Calendar.YEAR) == c2.get(Calendar.YEAR)
-                && c1.get(Calendar.DAY_OF_YEAR) == c2.get(Calendar.DAY_OF_YEAR);
+    private void updateDateHeader() {
+        binding.textViewSelectedDate.setText("Tasks for: " + formatDate(selectedDate.getTime()));
     }
 
     private long getSelectedDateEpoch() {
@@ -192,10 +204,78 @@ public class CalendarFragment extends Fragment {
     }
 
     private void showUpdateDialog(Task task) {
-        AddTaskDialogFragment.newInstance(task)
+        AddTaskDialogFragment.newInstance(task.getId())
                 .show(getParentFragmentManager(), "UpdateTaskDialog");
     }
 
+    /**
+     * 📅 One day cell: day number, completed/total counts and a background whose
+     * intensity follows the day's task count relative to the busiest day of the month.
+     * Binding only reads cached counts; a month still loading shows plain days.
+     */
+    private class DayViewContainer extends ViewContainer {
+
+        private final CalendarDayBinding dayBinding;
+        private CalendarDay day;
+
+        DayViewContainer(@NonNull View view) {
+            super(view);
+            dayBinding = CalendarDayBinding.bind(view);
+            view.setOnClickListener(v -> {
+                if (day != null && day.getOwner() == DayOwner.THIS_MONTH) {
+                    selectDate(day.getDate());
+                }
+            });
+        }
+
+        void bind(CalendarDay day) {
+            this.day = day;
+            LocalDate date = day.getDate();
+            dayBinding.textCalendarDay.setText(String.valueOf(date.getDayOfMonth()));
+
+            if (day.getOwner() != DayOwner.THIS_MONTH) {
+                dayBinding.textCalendarDay.setAlpha(0.3f);
+                dayBinding.textCalendarDayCounts.setVisibility(View.GONE);
+                dayBinding.calendarDayRoot.setBackground(null);
+                dayBinding.calendarDayRoot.setForeground(null);
+                return;
+            }
+
+            dayBinding.textCalendarDay.setAlpha(1f);
+            dayBinding.textCalendarDay.setTypeface(null,
+                    date.equals(LocalDate.now()) ? Typeface.BOLD : Typeface.NORMAL);
+            dayBinding.calendarDayRoot.setForeground(date.equals(getSelectedLocalDate())
+                    ? ContextCompat.getDrawable(requireContext(), R.drawable.bg_calendar_day_selected)
+                    : null);
+
+            MonthCounts counts = taskViewModel.getCachedMonthCounts(monthIndexOf(YearMonth.from(date)));
+            int total = counts != null ? counts.getTotal(date.getDayOfMonth()) : 0;
+            if (total == 0) {
+                dayBinding.textCalendarDayCounts.setVisibility(View.GONE);
+                dayBinding.calendarDayRoot.setBackground(null);
+                return;
+            }
+
+            int completed = counts.getCompleted(date.getDayOfMonth());
+            dayBinding.textCalendarDayCounts.setVisibility(View.VISIBLE);
+            dayBinding.textCalendarDayCounts.setText(getString(R.string.calendar_day_counts, completed, total));
+            dayBinding.textCalendarDayCounts.setTextColor(ContextCompat.getColor(requireContext(),
+                    completed == total ? R.color.green : R.color.red));
+
+            // 🔥 Heat scales with the day's load: busiest day of the month is the most intense
+            int alpha = MIN_HEAT_ALPHA + (MAX_HEAT_ALPHA - MIN_HEAT_ALPHA) * total / counts.getMaxTotal();
+            dayBinding.calendarDayRoot.setBackgroundColor(ColorUtils.setAlphaComponent(
+                    ContextCompat.getColor(requireContext(), R.color.calendar_heat), alpha));
+        }
+    }
+
+    @Override
+    public void onPause() {
+        super.onPause();
+        // 💾 The buffer's delayed flush may never run once the app is in the background
+        taskViewModel.flushPendingWrites();
+    }
+
     @Override
     public void onDestroyView() {
         super.onDestroyView();
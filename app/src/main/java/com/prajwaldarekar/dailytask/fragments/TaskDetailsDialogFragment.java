@@ -10,22 +10,22 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.DialogFragment;
+import androidx.lifecycle.ViewModelProvider;
 
 import com.google.android.material.button.MaterialButton;
 import com.prajwaldarekar.dailytask.R;
 import com.prajwaldarekar.dailytask.models.Task;
+import com.prajwaldarekar.dailytask.viewmodel.TaskViewModel;
 
 public class TaskDetailsDialogFragment extends DialogFragment {
 
     private static final String TAG = "TaskDetailsDialog";
-    private static final String ARG_TASK = "task_object";
+    private static final String ARG_TASK_ID = "task_id";
 
-    private Task task;
-
-    public static TaskDetailsDialogFragment newInstance(Task task) {
+    public static TaskDetailsDialogFragment newInstance(int taskId) {
         TaskDetailsDialogFragment fragment = new TaskDetailsDialogFragment();
         Bundle args = new Bundle();
-        args.putSerializable(ARG_TASK, task);
+        args.putInt(ARG_TASK_ID, taskId);
         fragment.setArguments(args);
         return fragment;
     }
@@ -75,34 +75,31 @@ public class TaskDetailsDialogFragment extends DialogFragment {
         super.onViewCreated(view, savedInstanceState);
 
         try {
-            if (getArguments() != null) {
-                Object obj = getArguments().getSerializable(ARG_TASK);
-                if (obj instanceof Task) {
-                    task = (Task) obj;
-                }
-            }
-
-            if (task == null) {
+            int taskId = getArguments() != null ? getArguments().getInt(ARG_TASK_ID, -1) : -1;
+            if (taskId < 0) {
                 Toast.makeText(getContext(), "Task data not available", Toast.LENGTH_SHORT).show();
                 dismissAllowingStateLoss();
                 return;
             }
 
-            TextView titleTextView = view.findViewById(R.id.taskDetailTitle);
-            TextView descriptionTextView = view.findViewById(R.id.taskDetailDescription);
             MaterialButton editButton = view.findViewById(R.id.btnEditTask);
             MaterialButton closeButton = view.findViewById(R.id.btnCloseSheet);
 
-            titleTextView.setText(task.getTitle());
-            descriptionTextView.setText(
-                    task.getDescription() != null && !task.getDescription().trim().isEmpty()
-                            ? task.getDescription()
-                            : getString(R.string.task_description_here)
-            );
+            // 🗂 Row comes from the shared ViewModel lookup (memory when warm, else a query by id)
+            TaskViewModel taskViewModel = new ViewModelProvider(requireActivity()).get(TaskViewModel.class);
+            taskViewModel.getTask(taskId, task -> {
+                if (getView() == null) return;      // Dismissed while loading
+                if (task == null) {
+                    Toast.makeText(getContext(), "Task data not available", Toast.LENGTH_SHORT).show();
+                    dismissAllowingStateLoss();
+                    return;
+                }
+                bindTask(view, task);
+            });
 
             editButton.setOnClickListener(v -> {
                 try {
-                    AddTaskDialogFragment editFragment = AddTaskDialogFragment.newInstance(task);
+                    AddTaskDialogFragment editFragment = AddTaskDialogFragment.newInstance(taskId);
                     editFragment.show(getParentFragmentManager(), "EditTaskDialog");
                     dismissAllowingStateLoss();
                 } catch (Exception e) {
@@ -125,4 +122,16 @@ public class TaskDetailsDialogFragment extends DialogFragment {
             dismissAllowingStateLoss();
         }
     }
+
+    private void bindTask(View view, Task task) {
+        TextView titleTextView = view.findViewById(R.id.taskDetailTitle);
+        TextView descriptionTextView = view.findViewById(R.id.taskDetailDescription);
+
+        titleTextView.setText(task.getTitle());
+        descriptionTextView.setText(
+                task.getDescription() != null && !task.getDescription().trim().isEmpty()
+                        ? task.getDescription()
+                        : getString(R.string.task_description_here)
+        );
+    }
 }
@@ -4,6 +4,8 @@ import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -12,7 +14,7 @@ import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.fragment.app.Fragment;
-import androidx.lifecycle.MediatorLiveData;
+import androidx.lifecycle.LiveData;
 import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.ItemTouchHelper;
@@ -20,35 +22,50 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.snackbar.Snackbar;
+import com.prajwaldarekar.dailytask.R;
+import com.prajwaldarekar.dailytask.adapters.PagedTaskAdapter;
 import com.prajwaldarekar.dailytask.adapters.TaskAdapter;
 import com.prajwaldarekar.dailytask.databinding.FragmentTasksBinding;
 import com.prajwaldarekar.dailytask.models.Task;
 import com.prajwaldarekar.dailytask.models.TaskType;
-import com.prajwaldarekar.dailytask.utils.TaskUtils;
-import com.prajwaldarekar.dailytask.models.TaskCompletion;
 import com.prajwaldarekar.dailytask.viewmodel.TaskCompletionViewModel;
 import com.prajwaldarekar.dailytask.viewmodel.TaskViewModel;
 
 import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.Date;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 public class TasksFragment extends Fragment {
 
     private FragmentTasksBinding binding;
     private TaskAdapter taskAdapter;
+    private PagedTaskAdapter pagedTaskAdapter;
     private TaskViewModel taskViewModel;
     private TaskCompletionViewModel taskCompletionViewModel;
 
     private static final String TOAST_COMPLETE = "Marked completed for today";
     private static final String TOAST_INCOMPLETE = "Marked incomplete for today";
 
+    // 📄 From this many stored tasks on, rows are paged from Room instead of sorted in memory
+    private static final int PAGED_MODE_THRESHOLD = 2000;
+
     private boolean isDialogOpen = false;
 
     private long todayEpoch;
 
+    // 🔎 Search runs once typing pauses this long
+    private static final long SEARCH_DEBOUNCE_MS = 250;
+    private boolean isSearching;
+    private RecyclerView.Adapter<?> listAdapter;    // Adapter picked by chooseListMode()
+    private final Runnable searchRunnable = this::applySearch;
+
+    // ☑️ Multi-select: task id -> task, in selection order
+    private final Map<Integer, Task> selectedTasks = new LinkedHashMap<>();
+
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
         binding = FragmentTasksBinding.inflate(inflater, container, false);
@@ -60,17 +77,20 @@ public class TasksFragment extends Fragment {
         todayEpoch = getTodayEpochMillis();
         initViewModels();
         setupRecyclerView();
-        observeTasksWithCompletions();
+        chooseListMode();
         setupFab();
         setupSwipeActions();
+        setupSelectionBar();
+        setupSearch();
     }
 
     private void initViewModels() {
         taskViewModel = new ViewModelProvider(requireActivity()).get(TaskViewModel.class);
         taskCompletionViewModel = new ViewModelProvider(requireActivity()).get(TaskCompletionViewModel.class);
         taskAdapter = new TaskAdapter(requireContext());
+        pagedTaskAdapter = new PagedTaskAdapter();
 
-        taskAdapter.setOnTaskCheckChangedListener((task, isChecked) -> {
+        TaskAdapter.OnTaskCheckChangedListener checkChangedListener = (task, isChecked) -> {
             if (task.getType() == TaskType.REMINDER) {
                 if (isChecked) {
                     taskCompletionViewModel.markTaskCompleted(task.getId(), todayEpoch);
@@ -80,104 +100,114 @@ public class TasksFragment extends Fragment {
                     Toast.makeText(requireContext(), TOAST_INCOMPLETE, Toast.LENGTH_SHORT).show();
                 }
             } else {
-                task.setCompleted(isChecked);
-                taskViewModel.update(task);
+                Task updated = new Task(task);
+                updated.setCompleted(isChecked);
+                taskViewModel.update(updated);
             }
-        });
+        };
 
-        taskAdapter.setOnTaskClickListener(task -> {
+        TaskAdapter.OnTaskClickListener clickListener = task -> {
+            if (!selectedTasks.isEmpty()) {
+                toggleSelection(task);
+                return;
+            }
             try {
-                TaskDetailsDialogFragment.newInstance(task)
+                TaskDetailsDialogFragment.newInstance(task.getId())
                         .show(getParentFragmentManager(), "taskDetail");
             } catch (Exception e) {
                 Toast.makeText(requireContext(), "Unable to open task details", Toast.LENGTH_SHORT).show();
             }
-        });
+        };
+
+        taskAdapter.setOnTaskCheckChangedListener(checkChangedListener);
+        taskAdapter.setOnTaskClickListener(clickListener);
+        pagedTaskAdapter.setOnTaskCheckChangedListener(checkChangedListener);
+        pagedTaskAdapter.setOnTaskClickListener(clickListener);
+        taskAdapter.setOnTaskLongClickListener(this::toggleSelection);
+        pagedTaskAdapter.setOnTaskLongClickListener(this::toggleSelection);
     }
 
     private void setupRecyclerView() {
         binding.recyclerViewTasks.setLayoutManager(new LinearLayoutManager(getContext()));
-        binding.recyclerViewTasks.setAdapter(taskAdapter);
     }
 
-    private void observeTasksWithCompletions() {
-        MediatorLiveData<List<Task>> combinedData = new MediatorLiveData<>();
-        List<Task> currentTasks = new ArrayList<>();
-        List<TaskCompletion> currentCompletions = new ArrayList<>();
-
-        Observer<Object> updateObserver = ignored -> {
-            if (!currentTasks.isEmpty()) {
-                Date today = new Date(todayEpoch);
-
-                for (Task task : currentTasks) {
-                    if (task.getType() == TaskType.REMINDER) {
-                        task.setCompleted(isTaskMarkedCompleted(task.getId(), currentCompletions));
-                        task.setDisplayDate(TaskUtils.getEffectiveDisplayDate(task, today));
-                    }
+    /**
+     * Picks the list mode once per view from the stored task count: small lists are
+     * merged and sorted in memory, large ones are paged from Room.
+     */
+    private void chooseListMode() {
+        LiveData<Integer> taskCount = taskViewModel.getTaskCount();
+        taskCount.observe(getViewLifecycleOwner(), new Observer<Integer>() {
+            @Override
+            public void onChanged(Integer count) {
+                taskCount.removeObserver(this);
+                if (count != null && count >= PAGED_MODE_THRESHOLD) {
+                    observePagedTasks();
+                } else {
+                    observeTasksWithCompletions();
                 }
+            }
+        });
+    }
 
-                List<Task> sorted = currentTasks.stream()
-                        .sorted((t1, t2) -> {
-                            boolean t1Completed = t1.isCompleted();
-                            boolean t2Completed = t2.isCompleted();
-
-                            if (t1Completed != t2Completed) {
-                                return Boolean.compare(t1Completed, t2Completed); // incomplete first
-                            }
-
-                            Date now = new Date();
-                            Date t1Date = t1.getDate() != null ? t1.getDate() : new Date(0);
-                            Date t2Date = t2.getDate() != null ? t2.getDate() : new Date(0);
+    private void observePagedTasks() {
+        listAdapter = pagedTaskAdapter;
+        if (!isSearching) binding.recyclerViewTasks.setAdapter(pagedTaskAdapter);
+        taskViewModel.getPagedActiveTasks().observe(getViewLifecycleOwner(), pagingData ->
+                pagedTaskAdapter.submitData(getViewLifecycleOwner().getLifecycle(), pagingData));
+    }
 
-                            boolean t1Overdue = t1Date.before(now) && !t1Completed;
-                            boolean t2Overdue = t2Date.before(now) && !t2Completed;
+    private void observeTasksWithCompletions() {
+        listAdapter = taskAdapter;
+        binding.recyclerViewTasks.setAdapter(taskAdapter);
 
-                            if (t1Overdue != t2Overdue)
-                                return Boolean.compare(!t1Overdue, !t2Overdue); // overdue first
+        // 🗂 Merged, decorated and sorted off the main thread by TaskViewModel
+        taskViewModel.getTodayTasks().observe(getViewLifecycleOwner(), tasks -> {
+            if (!isSearching) taskAdapter.setTasks(tasks);
+        });
+    }
 
-                            if (t1Completed) {
-                                long t1Time = getCompletedAt(t1.getId(), currentCompletions);
-                                long t2Time = getCompletedAt(t2.getId(), currentCompletions);
-                                return Long.compare(t2Time, t1Time); // latest completed first
-                            }
+    // 🔎 --- Search ---
 
-                            return Long.compare(t1Date.getTime(), t2Date.getTime());
-                        })
-                        .collect(Collectors.toList());
+    private void setupSearch() {
+        binding.editSearch.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
 
-                taskAdapter.setTasks(sorted);
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
             }
-        };
 
-        taskViewModel.getAllTasks().observe(getViewLifecycleOwner(), tasks -> {
-            currentTasks.clear();
-            if (tasks != null) currentTasks.addAll(tasks);
-            updateObserver.onChanged(null);
+            @Override
+            public void afterTextChanged(Editable s) {
+                binding.editSearch.removeCallbacks(searchRunnable);
+                binding.editSearch.postDelayed(searchRunnable, SEARCH_DEBOUNCE_MS);
+            }
         });
 
-        taskCompletionViewModel.getAllForDate(todayEpoch).observe(getViewLifecycleOwner(), completions -> {
-            currentCompletions.clear();
-            if (completions != null) currentCompletions.addAll(completions);
-            updateObserver.onChanged(null);
+        // Results are ranked and decorated on TaskViewModel's background thread
+        taskViewModel.getSearchResults().observe(getViewLifecycleOwner(), results -> {
+            if (isSearching) taskAdapter.setTasks(results);
         });
     }
 
-    private long getCompletedAt(long taskId, List<TaskCompletion> completions) {
-        for (TaskCompletion c : completions) {
-            if (c.getTaskId() == taskId && c.isCompleted()) {
-                return c.getCompletedAt();
-            }
-        }
-        return 0;
-    }
-
-    private boolean isTaskMarkedCompleted(long taskId, List<TaskCompletion> completions) {
-        for (TaskCompletion c : completions) {
-            if (c.getTaskId() == taskId && c.isCompleted()) {
-                return true;
-            }
+    private void applySearch() {
+        if (binding == null) return;
+
+        boolean searching = taskViewModel.search(binding.editSearch.getText().toString());
+        if (searching == isSearching) return;
+        isSearching = searching;
+
+        if (searching) {
+            // Search results always render through the in-memory adapter
+            taskAdapter.setTasks(null);
+            binding.recyclerViewTasks.setAdapter(taskAdapter);
+        } else if (listAdapter == pagedTaskAdapter) {
+            binding.recyclerViewTasks.setAdapter(pagedTaskAdapter);
+        } else {
+            taskAdapter.setTasks(taskViewModel.getTodayTasks().getValue());
         }
-        return false;
     }
 
     private static final long DEBOUNCE_DELAY_MS = 700;
@@ -190,7 +220,7 @@ public class TasksFragment extends Fragment {
             isFabClickable = false;
 
             try {
-                AddTaskDialogFragment dialog = AddTaskDialogFragment.newInstance(null);
+                AddTaskDialogFragment dialog = AddTaskDialogFragment.newInstance();
                 dialog.show(getChildFragmentManager(), "addTask");
                 isDialogOpen = true;
 
@@ -225,24 +255,28 @@ public class TasksFragment extends Fragment {
             @Override
             public void onSwiped(@NonNull RecyclerView.ViewHolder viewHolder, int direction) {
                 int position = viewHolder.getBindingAdapterPosition();
-                Task task = taskAdapter.getTaskAtPosition(position);
+                Task task = getTaskAtPosition(position);
                 if (task == null) return;
 
                 if (direction == ItemTouchHelper.LEFT) {
-                    taskViewModel.delete(task);
-                    Snackbar.make(binding.getRoot(), "Task deleted", Snackbar.LENGTH_LONG)
-                            .setAction("Undo", v -> taskViewModel.insert(task))
-                            .show();
+                    // ↩️ Undo restores the stored row, not this render copy
+                    taskViewModel.deleteAll(Collections.singletonList(task), deleted -> {
+                        if (binding == null) return;
+                        Snackbar.make(binding.getRoot(), "Task deleted", Snackbar.LENGTH_LONG)
+                                .setAction("Undo", v -> taskViewModel.insertAll(deleted))
+                                .show();
+                    });
                 } else {
                     try {
-                        AddTaskDialogFragment.newInstance(task)
+                        AddTaskDialogFragment.newInstance(task.getId())
                                 .show(getParentFragmentManager(), "editTask");
                     } catch (Exception e) {
                         Toast.makeText(requireContext(), "Unable to edit task", Toast.LENGTH_SHORT).show();
                     }
                 }
 
-                taskAdapter.notifyItemChanged(position); // reset swiped item
+                RecyclerView.Adapter<?> adapter = binding.recyclerViewTasks.getAdapter();
+                if (adapter != null) adapter.notifyItemChanged(position); // reset swiped item
             }
 
             @Override
@@ -274,6 +308,60 @@ public class TasksFragment extends Fragment {
         new ItemTouchHelper(callback).attachToRecyclerView(binding.recyclerViewTasks);
     }
 
+    // ☑️ --- Multi-select ---
+
+    private void setupSelectionBar() {
+        binding.buttonClearSelection.setOnClickListener(v -> clearSelection());
+
+        binding.buttonCompleteSelected.setOnClickListener(v -> {
+            List<Task> tasks = new ArrayList<>(selectedTasks.values());
+            taskViewModel.setCompletedToday(tasks, true);
+            Toast.makeText(requireContext(), tasks.size() + " tasks marked completed", Toast.LENGTH_SHORT).show();
+            clearSelection();
+        });
+
+        binding.buttonDeleteSelected.setOnClickListener(v -> {
+            List<Task> tasks = new ArrayList<>(selectedTasks.values());
+            clearSelection();
+            // ↩️ Undo restores the stored rows, not the render copies that were selected
+            taskViewModel.deleteAll(tasks, deleted -> {
+                if (binding == null) return;
+                Snackbar.make(binding.getRoot(), deleted.size() + " tasks deleted", Snackbar.LENGTH_LONG)
+                        .setAction("Undo", u -> taskViewModel.insertAll(deleted))
+                        .show();
+            });
+        });
+    }
+
+    private void toggleSelection(Task task) {
+        if (selectedTasks.remove(task.getId()) == null) {
+            selectedTasks.put(task.getId(), task);
+        }
+        onSelectionChanged();
+    }
+
+    private void clearSelection() {
+        selectedTasks.clear();
+        onSelectionChanged();
+    }
+
+    private void onSelectionChanged() {
+        int count = selectedTasks.size();
+        binding.layoutSelectionBar.setVisibility(count > 0 ? View.VISIBLE : View.GONE);
+        binding.textSelectionCount.setText(getResources().getQuantityString(R.plurals.tasks_selected, count, count));
+
+        // Fresh copy each time: adapters keep the set they are given
+        HashSet<Integer> ids = new HashSet<>(selectedTasks.keySet());
+        taskAdapter.setSelectedIds(ids);
+        pagedTaskAdapter.setSelectedIds(ids);
+    }
+
+    private Task getTaskAtPosition(int position) {
+        return binding.recyclerViewTasks.getAdapter() == pagedTaskAdapter
+                ? pagedTaskAdapter.getTaskAtPosition(position)
+                : taskAdapter.getTaskAtPosition(position);
+    }
+
     private long getTodayEpochMillis() {
         Calendar cal = Calendar.getInstance();
         cal.set(Calendar.HOUR_OF_DAY, 0);
@@ -283,9 +371,25 @@ public class TasksFragment extends Fragment {
         return cal.getTimeInMillis();
     }
 
+    @Override
+    public void onResume() {
+        super.onResume();
+        // 📆 The app may come back on a later day; toggles and rows follow the new date
+        todayEpoch = getTodayEpochMillis();
+        taskViewModel.refreshToday();
+    }
+
+    @Override
+    public void onPause() {
+        super.onPause();
+        // 💾 The buffer's delayed flush may never run once the app is in the background
+        taskViewModel.flushPendingWrites();
+    }
+
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        binding.editSearch.removeCallbacks(searchRunnable);
         binding = null;
     }
 }
@@ -0,0 +1,95 @@
+package com.prajwaldarekar.dailytask.models;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
+
+import com.prajwaldarekar.dailytask.recurrence.EpochDays;
+
+/**
+ * One month of a task's completion history packed into a bitmap: bit (dayOfMonth - 1)
+ * is set when the task was completed that day. A year of a daily reminder is 12 rows
+ * of three integers instead of 365 task_completion rows, and "completed days in a range"
+ * is a popcount. Months without completions have no row.
+ */
+@Entity(
+        tableName = "completion_month",
+        primaryKeys = {"task_id", "month_index"},
+        indices = {@Index(value = {"month_index"})}
+)
+public class CompletionMonth {
+
+    @ColumnInfo(name = "task_id")
+    private long taskId;
+
+    @ColumnInfo(name = "month_index")
+    private int monthIndex;     // EpochDays.monthIndex of the month
+
+    @ColumnInfo(name = "days")
+    private int days;           // Bit (dayOfMonth - 1) per completed day; 31 bits used
+
+    // ✅ Default constructor required by Room
+    public CompletionMonth() {
+    }
+
+    // ✅ Custom constructor (ignored by Room)
+    @Ignore
+    public CompletionMonth(long taskId, int monthIndex, int days) {
+        this.taskId = taskId;
+        this.monthIndex = monthIndex;
+        this.days = days;
+    }
+
+    /** Bit of the given epoch day inside its month's bitmap. */
+    public static int dayBit(int epochDay) {
+        return 1 << (EpochDays.dayOfMonth(epochDay) - 1);
+    }
+
+    /** Number of completed days between two days of this month, both inclusive (1-31). */
+    public int countDays(int fromDayOfMonth, int toDayOfMonth) {
+        if (fromDayOfMonth > toDayOfMonth) return 0;
+        int upTo = toDayOfMonth >= 31 ? -1 : (1 << toDayOfMonth) - 1;
+        int below = (1 << (fromDayOfMonth - 1)) - 1;
+        return Integer.bitCount(days & upTo & ~below);
+    }
+
+    public int countDays() {
+        return Integer.bitCount(days);
+    }
+
+    /**
+     * Writes the completed epoch days of this month into {@code out} from {@code offset},
+     * oldest first, and returns how many were written.
+     */
+    public int completedDays(int[] out, int offset) {
+        int firstDay = EpochDays.ofMonthIndex(monthIndex);
+        int count = 0;
+        for (int bits = days; bits != 0; bits &= bits - 1) {
+            out[offset + count++] = firstDay + Integer.numberOfTrailingZeros(bits);
+        }
+        return count;
+    }
+
+    // --- 🧭 Getters & Setters ---
+
+    public long getTaskId() { return taskId; }
+    public void setTaskId(long taskId) { this.taskId = taskId; }
+
+    public int getMonthIndex() { return monthIndex; }
+    public void setMonthIndex(int monthIndex) { this.monthIndex = monthIndex; }
+
+    public int getDays() { return days; }
+    public void setDays(int days) { this.days = days; }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "CompletionMonth{" +
+                "taskId=" + taskId +
+                ", monthIndex=" + monthIndex +
+                ", days=" + Integer.toBinaryString(days) +
+                '}';
+    }
+}
@@ -0,0 +1,112 @@
+package com.prajwaldarekar.dailytask.models;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable view of which tasks are completed on one day, keyed by task id.
+ * Lookups are O(1) on a primitive open-addressing table, so list pipelines can
+ * query it per row (and inside sort comparators) without scanning completions.
+ */
+public final class CompletionSnapshot {
+
+    public static final CompletionSnapshot EMPTY = of(0L, null);
+
+    private static final long FREE = Long.MIN_VALUE;
+
+    private final long date;    // Epoch millis at 00:00 of the day
+    private final int size;
+    private final long[] keys;
+    private final long[] completedAt;
+
+    private CompletionSnapshot(long date, long[] keys, long[] completedAt, int size) {
+        this.date = date;
+        this.keys = keys;
+        this.completedAt = completedAt;
+        this.size = size;
+    }
+
+    /**
+     * Builds a snapshot from the tasks completed on a single day; a missing completed_at reads as 0.
+     */
+    public static CompletionSnapshot ofDay(long date, List<DayCompletion> completions) {
+        int count = completions != null ? completions.size() : 0;
+        long[] keys = newTable(count);
+        long[] completedAt = new long[keys.length];
+
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            DayCompletion completion = completions.get(i);
+            int slot = slotOf(keys, completion.getTaskId());
+            if (keys[slot] == FREE) {
+                keys[slot] = completion.getTaskId();
+                size++;
+            }
+            Long at = completion.getCompletedAt();
+            completedAt[slot] = at != null ? at : 0L;
+        }
+        return new CompletionSnapshot(date, keys, completedAt, size);
+    }
+
+    /**
+     * Builds a snapshot from the completion rows of a single day.
+     * Rows that are not marked completed are skipped; a missing completed_at reads as 0.
+     */
+    public static CompletionSnapshot of(long date, List<TaskCompletion> completions) {
+        int count = completions != null ? completions.size() : 0;
+        long[] keys = newTable(count);
+        long[] completedAt = new long[keys.length];
+
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            TaskCompletion completion = completions.get(i);
+            if (!completion.isCompleted()) continue;
+
+            long taskId = completion.getTaskId();
+            int slot = slotOf(keys, taskId);
+            if (keys[slot] == FREE) {
+                keys[slot] = taskId;
+                size++;
+            }
+            Long at = completion.getCompletedAt();
+            completedAt[slot] = at != null ? at : 0L;
+        }
+        return new CompletionSnapshot(date, keys, completedAt, size);
+    }
+
+    public long getDate() {
+        return date;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isCompleted(long taskId) {
+        return keys[slotOf(keys, taskId)] != FREE;
+    }
+
+    /** Completion timestamp of the task on this day, or 0 if unknown or not completed. */
+    public long getCompletedAt(long taskId) {
+        int slot = slotOf(keys, taskId);
+        return keys[slot] != FREE ? completedAt[slot] : 0L;
+    }
+
+    // Empty key table with room for `count` keys at most half full
+    private static long[] newTable(int count) {
+        long[] keys = new long[Integer.highestOneBit(Math.max(2, count) * 2 - 1) << 1];
+        Arrays.fill(keys, FREE);
+        return keys;
+    }
+
+    // Linear probing; tables are sized to stay at most half full
+    private static int slotOf(long[] keys, long taskId) {
+        int mask = keys.length - 1;
+        long h = taskId * 0x9E3779B97F4A7C15L;
+        int slot = (int) (h ^ (h >>> 32)) & mask;
+        while (keys[slot] != FREE && keys[slot] != taskId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
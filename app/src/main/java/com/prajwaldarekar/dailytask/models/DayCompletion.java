@@ -0,0 +1,24 @@
+package com.prajwaldarekar.dailytask.models;
+
+import androidx.room.ColumnInfo;
+
+/**
+ * A task completed on some day, with its completion time when still known.
+ */
+public class DayCompletion {
+
+    @ColumnInfo(name = "task_id")
+    private final long taskId;
+
+    @ColumnInfo(name = "completed_at")
+    private final Long completedAt;     // Null once the day's timestamp has been pruned
+
+    public DayCompletion(long taskId, Long completedAt) {
+        this.taskId = taskId;
+        this.completedAt = completedAt;
+    }
+
+    public long getTaskId() { return taskId; }
+
+    public Long getCompletedAt() { return completedAt; }
+}
@@ -0,0 +1,31 @@
+package com.prajwaldarekar.dailytask.models;
+
+import androidx.room.ColumnInfo;
+
+/**
+ * One row of the per-day task count query: how many tasks fall on a day of the month
+ * and how many of them are completed.
+ */
+public class DayCount {
+
+    @ColumnInfo(name = "day_of_month")
+    private final int dayOfMonth;
+
+    @ColumnInfo(name = "total")
+    private final int total;
+
+    @ColumnInfo(name = "completed")
+    private final int completed;
+
+    public DayCount(int dayOfMonth, int total, int completed) {
+        this.dayOfMonth = dayOfMonth;
+        this.total = total;
+        this.completed = completed;
+    }
+
+    public int getDayOfMonth() { return dayOfMonth; }
+
+    public int getTotal() { return total; }
+
+    public int getCompleted() { return completed; }
+}
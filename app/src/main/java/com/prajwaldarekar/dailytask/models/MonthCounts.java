@@ -0,0 +1,39 @@
+package com.prajwaldarekar.dailytask.models;
+
+import com.prajwaldarekar.dailytask.recurrence.EpochDays;
+
+/**
+ * 🗓 Pending and completed task counts for every day of one month, as shown by the
+ * Calendar heat map. Filled once on a background thread, read-only afterwards.
+ */
+public final class MonthCounts {
+
+    private final int monthIndex;
+    private final int[] pending = new int[31];
+    private final int[] completed = new int[31];
+    private int maxTotal;
+
+    public MonthCounts(int monthIndex) {
+        this.monthIndex = monthIndex;
+    }
+
+    /** Adds tasks to a day (1-based day of month). Only called while the counts are being built. */
+    public void add(int dayOfMonth, int pendingCount, int completedCount) {
+        int i = dayOfMonth - 1;
+        pending[i] += pendingCount;
+        completed[i] += completedCount;
+        maxTotal = Math.max(maxTotal, pending[i] + completed[i]);
+    }
+
+    /** Month as an {@link EpochDays#monthIndex(int)}. */
+    public int getMonthIndex() { return monthIndex; }
+
+    public int getPending(int dayOfMonth) { return pending[dayOfMonth - 1]; }
+
+    public int getCompleted(int dayOfMonth) { return completed[dayOfMonth - 1]; }
+
+    public int getTotal(int dayOfMonth) { return pending[dayOfMonth - 1] + completed[dayOfMonth - 1]; }
+
+    /** Busiest day's task count, the top of the heat scale. */
+    public int getMaxTotal() { return maxTotal; }
+}
@@ -0,0 +1,26 @@
+package com.prajwaldarekar.dailytask.models;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Embedded;
+
+/**
+ * A repeating reminder together with its completion bitmap for one month (0 when nothing
+ * was completed), so the month's occurrences can be counted without another lookup.
+ */
+public class ReminderMonth {
+
+    @Embedded
+    private final Task task;
+
+    @ColumnInfo(name = "days")
+    private final int days;
+
+    public ReminderMonth(Task task, int days) {
+        this.task = task;
+        this.days = days;
+    }
+
+    public Task getTask() { return task; }
+
+    public int getDays() { return days; }
+}
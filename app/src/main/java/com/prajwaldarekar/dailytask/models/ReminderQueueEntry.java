@@ -0,0 +1,105 @@
+package com.prajwaldarekar.dailytask.models;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Next pending occurrence of a reminder.
+ * The table is a persistent priority queue ordered by trigger_at: only the
+ * earliest entry ever has a system alarm armed for it.
+ */
+@Entity(
+        tableName = "reminder_queue",
+        indices = {@Index(value = {"trigger_at"})}
+)
+public class ReminderQueueEntry {
+
+    @PrimaryKey
+    @ColumnInfo(name = "task_id")
+    private long taskId;    // At most one pending occurrence per task
+
+    @ColumnInfo(name = "trigger_at")
+    private long triggerAt; // Epoch millis the reminder is due
+
+    @ColumnInfo(name = "title")
+    private String title;
+
+    @ColumnInfo(name = "repeat_mode")
+    @NonNull
+    private RepeatMode repeatMode = RepeatMode.NONE;
+
+    @ColumnInfo(name = "created_at")
+    private long createdAt;
+
+    // ✅ Default constructor required by Room
+    public ReminderQueueEntry() {
+    }
+
+    // ✅ Custom constructor (ignored by Room)
+    @Ignore
+    public ReminderQueueEntry(long taskId, long triggerAt, String title, @NonNull RepeatMode repeatMode, long createdAt) {
+        this.taskId = taskId;
+        this.triggerAt = triggerAt;
+        this.title = title;
+        this.repeatMode = repeatMode;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(long taskId) {
+        this.taskId = taskId;
+    }
+
+    public long getTriggerAt() {
+        return triggerAt;
+    }
+
+    public void setTriggerAt(long triggerAt) {
+        this.triggerAt = triggerAt;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    @NonNull
+    public RepeatMode getRepeatMode() {
+        return repeatMode;
+    }
+
+    public void setRepeatMode(@NonNull RepeatMode repeatMode) {
+        this.repeatMode = repeatMode;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "ReminderQueueEntry{" +
+                "taskId=" + taskId +
+                ", triggerAt=" + triggerAt +
+                ", title='" + title + '\'' +
+                ", repeatMode=" + repeatMode +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
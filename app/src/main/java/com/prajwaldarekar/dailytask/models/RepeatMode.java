@@ -1,8 +1,29 @@
 package com.prajwaldarekar.dailytask.models;
 
+/**
+ * How a reminder repeats. Stored in the database as {@link #getCode()}; codes are part
+ * of the on-disk format, so never renumber them and only ever add new ones.
+ */
 public enum RepeatMode {
-    NONE,
-    DAILY,
-    WEEKLY,
-    MONTHLY
-}
\ No newline at end of file
+    NONE(0),
+    DAILY(1),
+    WEEKLY(2),
+    MONTHLY(3);
+
+    private static final RepeatMode[] BY_CODE = {NONE, DAILY, WEEKLY, MONTHLY};
+
+    private final int code;
+
+    RepeatMode(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /** Mode stored under the given code; unknown codes read as {@link #NONE}. */
+    public static RepeatMode fromCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : NONE;
+    }
+}
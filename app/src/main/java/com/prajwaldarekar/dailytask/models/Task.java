@@ -1,36 +1,52 @@
 package com.prajwaldarekar.dailytask.models;
 
+import androidx.annotation.NonNull;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
-import androidx.room.TypeConverters;
 
-import com.prajwaldarekar.dailytask.utils.Converters;
+import com.prajwaldarekar.dailytask.recurrence.EpochDays;
 
-import java.io.Serializable;
 import java.util.Date;
 
-@Entity(tableName = "tasks")
-@TypeConverters(Converters.class)
-public class Task implements Serializable {
+/**
+ * A task, note or reminder. When it happens is stored as two primitive columns, a local
+ * epoch day and a minute of that day, so day queries are index range scans and loading
+ * a row allocates no Date objects. {@link #getDate()} and friends are a compatibility
+ * layer for UI code that still works with Dates.
+ */
+@Entity(tableName = "tasks",
+        indices = {
+                @Index(value = {"epoch_day", "minute_of_day"}),
+                @Index(value = {"isCompleted", "epoch_day"})
+        })
+public class Task {
 
     @PrimaryKey(autoGenerate = true)
     private int id;
 
     private String title;
     private String description;
-    private Date date;      // Task date
-    private Date time;      // Optional time
+    @ColumnInfo(name = "epoch_day")
+    private int epochDay;       // Local day, see EpochDays
+    @ColumnInfo(name = "minute_of_day")
+    private int minuteOfDay;    // Local wall-clock minute, 0-1439
     @ColumnInfo(name = "isCompleted")
-    private Boolean isCompleted;
-    private TaskType type;
-    private RepeatMode repeatMode;      // NONE, DAILY, WEEKLY, MONTHLY
+    private boolean isCompleted;
+    @NonNull
+    private TaskType type = TaskType.TASK;       // NOT NULL column
+    @NonNull
+    private RepeatMode repeatMode = RepeatMode.NONE;     // NONE, DAILY, WEEKLY, MONTHLY; NOT NULL column
     private long createdAt;     // Unix timestamp
 
     @Ignore
     private Date displayDate;
 
+    @Ignore
+    private int streak;     // Current streak, filled in for list rows only
+
     // 🔨 Default Constructor
     public Task() {
         this.createdAt = System.currentTimeMillis();
@@ -42,13 +58,29 @@ public class Task implements Serializable {
     public Task(String title, String description, Date date, TaskType type, boolean isCompleted) {
         this.title = title;
         this.description = description;
-        this.date = date;
-        this.type = type;
+        setDate(date);
+        setType(type);
         this.isCompleted = isCompleted;
         this.createdAt = System.currentTimeMillis();
         this.repeatMode = RepeatMode.NONE;
     }
 
+    @Ignore
+    // 🔨 Copy Constructor (render copies, so list diffing never sees in-place edits)
+    public Task(Task other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.description = other.description;
+        this.epochDay = other.epochDay;
+        this.minuteOfDay = other.minuteOfDay;
+        this.isCompleted = other.isCompleted;
+        this.type = other.type;
+        this.repeatMode = other.repeatMode;
+        this.createdAt = other.createdAt;
+        this.displayDate = other.displayDate;
+        this.streak = other.streak;
+    }
+
     // --- 🧭 Getters & Setters ---
 
     public int getId() { return id; }
@@ -60,29 +92,58 @@ public class Task implements Serializable {
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
 
-    public Date getDate() { return date; }
-    public void setDate(Date date) { this.date = date; }
+    public int getEpochDay() { return epochDay; }
+    public void setEpochDay(int epochDay) { this.epochDay = epochDay; }
+
+    public int getMinuteOfDay() { return minuteOfDay; }
+    public void setMinuteOfDay(int minuteOfDay) { this.minuteOfDay = minuteOfDay; }
+
+    /** Instant the task is due: its day at its wall-clock minute. */
+    public long getDateMillis() { return EpochDays.toMillis(epochDay, minuteOfDay); }
 
-    public Date getTime() { return time; }
-    public void setTime(Date time) { this.time = time; }
+    public boolean isCompleted() { return isCompleted; }
+    public void setCompleted(boolean completed) { isCompleted = completed; }
 
-    public Boolean isCompleted() { return isCompleted; }
-    public void setCompleted(Boolean completed) { isCompleted = completed; }
+    // 🧩 --- Date compatibility layer (allocates; prefer the primitive accessors) ---
 
+    public Date getDate() { return new Date(getDateMillis()); }
+
+    /** Sets both the day and the time of day from one instant; null is ignored. */
+    public void setDate(Date date) {
+        if (date == null) return;
+        long millis = date.getTime();
+        epochDay = EpochDays.fromMillis(millis);
+        minuteOfDay = EpochDays.minuteOfDay(millis);
+    }
+
+    public Date getTime() { return getDate(); }
+
+    /** Sets only the time of day, keeping the day; null is ignored. */
+    public void setTime(Date time) {
+        if (time != null) minuteOfDay = EpochDays.minuteOfDay(time.getTime());
+    }
+
+    @NonNull
     public TaskType getType() { return type; }
-    public void setType(TaskType type) { this.type = type; }
+    /** Null is stored as {@link TaskType#TASK}, matching the NOT NULL column. */
+    public void setType(TaskType type) { this.type = type != null ? type : TaskType.TASK; }
 
+    @NonNull
     public RepeatMode getRepeatMode() { return repeatMode; }
-    public void setRepeatMode(RepeatMode repeatMode) { this.repeatMode = repeatMode; }
+    /** Null is stored as {@link RepeatMode#NONE}, matching the NOT NULL column. */
+    public void setRepeatMode(RepeatMode repeatMode) { this.repeatMode = repeatMode != null ? repeatMode : RepeatMode.NONE; }
 
     public long getCreatedAt() { return createdAt; }
     public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
 
     public Date getDisplayDate() {
-        return displayDate != null ? displayDate : date;
+        return displayDate != null ? displayDate : getDate();
     }
 
     public void setDisplayDate(Date displayDate) {
         this.displayDate = displayDate;
     }
+
+    public int getStreak() { return streak; }
+    public void setStreak(int streak) { this.streak = streak; }
 }
\ No newline at end of file
@@ -4,13 +4,21 @@ import androidx.annotation.NonNull;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 /**
  * Represents the completion state of a task on a specific date.
  * Used for tracking per-day status of recurring tasks (e.g., daily/weekly).
+ * At most one row exists per (task_id, completion_date).
  */
-@Entity(tableName = "task_completion")
+@Entity(
+        tableName = "task_completion",
+        indices = {
+                @Index(value = {"task_id", "completion_date"}, unique = true),
+                @Index(value = {"completion_date"})
+        }
+)
 public class TaskCompletion {
 
     @PrimaryKey(autoGenerate = true)
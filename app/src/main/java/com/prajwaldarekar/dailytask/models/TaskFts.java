@@ -0,0 +1,32 @@
+package com.prajwaldarekar.dailytask.models;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.PrimaryKey;
+
+/**
+ * Full-text index over task titles and descriptions.
+ * External-content FTS4 table: the text lives only in `tasks`, and Room's
+ * content-sync triggers keep the index in step with every insert, update and delete.
+ */
+@Fts4(contentEntity = Task.class)
+@Entity(tableName = "tasks_fts")
+public class TaskFts {
+
+    @PrimaryKey
+    @ColumnInfo(name = "rowid")
+    private int rowId;      // Same as tasks.id
+
+    private String title;
+    private String description;
+
+    public int getRowId() { return rowId; }
+    public void setRowId(int rowId) { this.rowId = rowId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+}
@@ -0,0 +1,77 @@
+package com.prajwaldarekar.dailytask.models;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Ignore;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Comparator;
+
+/**
+ * One full-text match: the task id plus FTS4 matchinfo('pcx') statistics, from
+ * which a relevance score is derived without loading the task row.
+ */
+public class TaskSearchHit {
+
+    // Per-column weights, in tasks_fts column order: a title hit counts double
+    private static final double[] COLUMN_WEIGHTS = {2.0, 1.0};
+
+    /** Most relevant first; newer tasks first on ties. */
+    public static final Comparator<TaskSearchHit> BY_RELEVANCE = (a, b) -> {
+        int byScore = Double.compare(b.getRelevance(), a.getRelevance());
+        return byScore != 0 ? byScore : Integer.compare(b.taskId, a.taskId);
+    };
+
+    @ColumnInfo(name = "task_id")
+    private final int taskId;
+
+    @ColumnInfo(name = "match_info")
+    private final byte[] matchInfo;
+
+    @Ignore
+    private double relevance = Double.NaN;  // Computed on first use
+
+    public TaskSearchHit(int taskId, byte[] matchInfo) {
+        this.taskId = taskId;
+        this.matchInfo = matchInfo;
+    }
+
+    public int getTaskId() { return taskId; }
+
+    public byte[] getMatchInfo() { return matchInfo; }
+
+    /**
+     * Sum over query words and columns of weight * (hits in this task / hits in all tasks),
+     * so words that are rare across the table count for more (the ranking from the SQLite FTS docs).
+     */
+    public double getRelevance() {
+        if (Double.isNaN(relevance)) {
+            relevance = score(matchInfo);
+        }
+        return relevance;
+    }
+
+    private static double score(byte[] matchInfo) {
+        if (matchInfo == null || matchInfo.length < 8) return 0;
+
+        // matchinfo is an array of 32-bit unsigned ints in native byte order
+        IntBuffer ints = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder()).asIntBuffer();
+        int phrases = ints.get(0);
+        int columns = ints.get(1);
+
+        double score = 0;
+        for (int phrase = 0; phrase < phrases; phrase++) {
+            for (int column = 0; column < columns; column++) {
+                int base = 2 + 3 * (phrase * columns + column);
+                int hitsHere = ints.get(base);
+                int hitsEverywhere = ints.get(base + 1);
+                if (hitsHere > 0 && hitsEverywhere > 0) {
+                    double weight = column < COLUMN_WEIGHTS.length ? COLUMN_WEIGHTS[column] : 1.0;
+                    score += weight * hitsHere / hitsEverywhere;
+                }
+            }
+        }
+        return score;
+    }
+}
@@ -0,0 +1,62 @@
+package com.prajwaldarekar.dailytask.models;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.PrimaryKey;
+
+/**
+ * Running completion statistics of one task, maintained incrementally by
+ * {@link com.prajwaldarekar.dailytask.analytics.StreakTracker}.
+ * A row exists only while the task has at least one completion.
+ */
+@Entity(tableName = "task_stats")
+public class TaskStats {
+
+    @PrimaryKey
+    @ColumnInfo(name = "task_id")
+    private long taskId;
+
+    @ColumnInfo(name = "current_streak")
+    private int currentStreak;      // Consecutive completed occurrences ending at last_completed_day
+
+    @ColumnInfo(name = "longest_streak")
+    private int longestStreak;
+
+    @ColumnInfo(name = "total_completions")
+    private int totalCompletions;   // Completion rows, including several within one occurrence
+
+    @ColumnInfo(name = "last_completed_day")
+    private int lastCompletedDay;   // Epoch day of the latest completed occurrence
+
+    // ✅ Default constructor required by Room
+    public TaskStats() {
+    }
+
+    // ✅ Custom constructor (ignored by Room)
+    @Ignore
+    public TaskStats(long taskId, int currentStreak, int longestStreak, int totalCompletions, int lastCompletedDay) {
+        this.taskId = taskId;
+        this.currentStreak = currentStreak;
+        this.longestStreak = longestStreak;
+        this.totalCompletions = totalCompletions;
+        this.lastCompletedDay = lastCompletedDay;
+    }
+
+    // --- 🧭 Getters & Setters ---
+
+    public long getTaskId() { return taskId; }
+    public void setTaskId(long taskId) { this.taskId = taskId; }
+
+    public int getCurrentStreak() { return currentStreak; }
+    public void setCurrentStreak(int currentStreak) { this.currentStreak = currentStreak; }
+
+    public int getLongestStreak() { return longestStreak; }
+    public void setLongestStreak(int longestStreak) { this.longestStreak = longestStreak; }
+
+    public int getTotalCompletions() { return totalCompletions; }
+    public void setTotalCompletions(int totalCompletions) { this.totalCompletions = totalCompletions; }
+
+    public int getLastCompletedDay() { return lastCompletedDay; }
+    public void setLastCompletedDay(int lastCompletedDay) { this.lastCompletedDay = lastCompletedDay; }
+}
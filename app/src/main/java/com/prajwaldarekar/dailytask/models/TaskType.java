@@ -1,22 +1,43 @@
 package com.prajwaldarekar.dailytask.models;
 
+/**
+ * Kind of item. Stored in the database as {@link #getCode()}; codes are part of the
+ * on-disk format, so never renumber them and only ever add new ones.
+ */
 public enum TaskType {
-    TASK {
+    TASK(0) {
         @Override
         public String toString() {
             return "Task";
         }
     },
-    NOTE {
+    NOTE(1) {
         @Override
         public String toString() {
             return "Note";
         }
     },
-    REMINDER {
+    REMINDER(2) {
         @Override
         public String toString() {
             return "Reminder";
         }
+    };
+
+    private static final TaskType[] BY_CODE = {TASK, NOTE, REMINDER};
+
+    private final int code;
+
+    TaskType(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /** Type stored under the given code; unknown codes read as {@link #TASK}. */
+    public static TaskType fromCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : TASK;
     }
 }
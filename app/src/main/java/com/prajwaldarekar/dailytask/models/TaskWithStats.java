@@ -0,0 +1,28 @@
+package com.prajwaldarekar.dailytask.models;
+
+import androidx.annotation.Nullable;
+import androidx.room.Embedded;
+
+/**
+ * A task together with its task_stats row (null when it has no completions), so a list
+ * page can show streaks without one statistics lookup per row.
+ */
+public class TaskWithStats {
+
+    @Embedded
+    private final Task task;
+
+    @Embedded(prefix = "stats_")
+    @Nullable
+    private final TaskStats stats;
+
+    public TaskWithStats(Task task, @Nullable TaskStats stats) {
+        this.task = task;
+        this.stats = stats;
+    }
+
+    public Task getTask() { return task; }
+
+    @Nullable
+    public TaskStats getStats() { return stats; }
+}
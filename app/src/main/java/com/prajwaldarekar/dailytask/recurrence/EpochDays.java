@@ -0,0 +1,149 @@
+package com.prajwaldarekar.dailytask.recurrence;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Primitive local-calendar arithmetic on epoch days (days since 1970-01-01 in the
+ * device time zone). Nothing here allocates, so it is safe to call per row while
+ * filtering or sorting task lists.
+ *
+ * Day-of-week values follow {@link Calendar} (SUNDAY = 1 ... SATURDAY = 7) and
+ * months are 1-based.
+ */
+public final class EpochDays {
+
+    public static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    public static final long MILLIS_PER_MINUTE = 60L * 1000;
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static volatile TimeZone zone = TimeZone.getDefault();
+    private static volatile int firstDayOfWeek = Calendar.getInstance().getFirstDayOfWeek();
+
+    private EpochDays() {
+    }
+
+    /**
+     * Re-reads the default time zone and locale week start.
+     * Call after the system time zone or locale changes.
+     */
+    public static void refreshZone() {
+        zone = TimeZone.getDefault();
+        firstDayOfWeek = Calendar.getInstance().getFirstDayOfWeek();
+    }
+
+    // 🕒 --- Millis <-> local day/minute ---
+
+    public static int fromMillis(long millis) {
+        long local = millis + zone.getOffset(millis);
+        return (int) Math.floorDiv(local, MILLIS_PER_DAY);
+    }
+
+    public static int minuteOfDay(long millis) {
+        long local = millis + zone.getOffset(millis);
+        return (int) (Math.floorMod(local, MILLIS_PER_DAY) / MILLIS_PER_MINUTE);
+    }
+
+    /**
+     * Returns the UTC instant of the given local wall-clock minute on the given day.
+     * Resolves DST overlaps and gaps the same way a lenient {@link Calendar} does.
+     */
+    public static long toMillis(int epochDay, int minuteOfDay) {
+        TimeZone tz = zone;
+        long local = epochDay * MILLIS_PER_DAY + minuteOfDay * MILLIS_PER_MINUTE;
+        long standard = local - tz.getRawOffset();
+        long utc = local - tz.getOffset(standard);
+        // Wall time skipped by a DST gap: fall back to standard time, i.e. shift forward
+        return utc + tz.getOffset(utc) == local ? utc : standard;
+    }
+
+    public static long startOfDayMillis(int epochDay) {
+        return toMillis(epochDay, 0);
+    }
+
+    public static int today() {
+        return fromMillis(System.currentTimeMillis());
+    }
+
+    // 📅 --- Civil calendar fields ---
+
+    /** Calendar-style day of week: SUNDAY = 1 ... SATURDAY = 7. 1970-01-01 was a Thursday. */
+    public static int dayOfWeek(int epochDay) {
+        return Math.floorMod(epochDay + 4, 7) + 1;
+    }
+
+    /** Position of the day inside its locale week (0 = first day of week). */
+    public static int indexInWeek(int epochDay) {
+        return Math.floorMod(dayOfWeek(epochDay) - firstDayOfWeek, 7);
+    }
+
+    public static int year(int epochDay) {
+        int z = epochDay + 719468;
+        int era = Math.floorDiv(z, 146097);
+        int doe = z - era * 146097;
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        return yoe + era * 400 + (mp >= 10 ? 1 : 0);
+    }
+
+    public static int month(int epochDay) {
+        int doy = dayOfMarchYear(epochDay);
+        int mp = (5 * doy + 2) / 153;
+        return mp < 10 ? mp + 3 : mp - 9;
+    }
+
+    public static int dayOfMonth(int epochDay) {
+        int doy = dayOfMarchYear(epochDay);
+        int mp = (5 * doy + 2) / 153;
+        return doy - (153 * mp + 2) / 5 + 1;
+    }
+
+    /** Months since 0000-01, handy as a compact month key. */
+    public static int monthIndex(int epochDay) {
+        return year(epochDay) * 12 + month(epochDay) - 1;
+    }
+
+    public static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    public static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /** Epoch day of the given civil date (month 1-12, day 1-31). */
+    public static int of(int year, int month, int dayOfMonth) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yoe = y - era * 400;
+        int mp = month > 2 ? month - 3 : month + 9;
+        int doy = (153 * mp + 2) / 5 + dayOfMonth - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    /** Epoch day of the first day of the month with the given {@link #monthIndex}. */
+    public static int ofMonthIndex(int monthIndex) {
+        return of(Math.floorDiv(monthIndex, 12), Math.floorMod(monthIndex, 12) + 1, 1);
+    }
+
+    // Day index inside a March-based year (Mar 1 = 0), from Howard Hinnant's civil algorithms.
+    private static int dayOfMarchYear(int epochDay) {
+        int z = epochDay + 719468;
+        int era = Math.floorDiv(z, 146097);
+        int doe = z - era * 146097;
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        return doe - (365 * yoe + yoe / 4 - yoe / 100);
+    }
+}
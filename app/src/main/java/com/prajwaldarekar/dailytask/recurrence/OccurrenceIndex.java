@@ -0,0 +1,128 @@
+package com.prajwaldarekar.dailytask.recurrence;
+
+import android.util.SparseArray;
+
+import com.prajwaldarekar.dailytask.models.Task;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable day -> tasks lookup built once per task-set change.
+ *
+ * One-off tasks are bucketed by epoch day; repeating reminders go into a daily
+ * bucket, day-of-week buckets and day-of-month buckets. Looking up a day only
+ * touches the tasks that occur on it instead of scanning the whole list; each
+ * candidate is confirmed with {@link RecurrenceRule#occursOn(int)}, which also keeps
+ * reminders off the days before their anchor.
+ */
+public final class OccurrenceIndex {
+
+    public interface Visitor {
+        void visit(Task task, RecurrenceRule rule);
+    }
+
+    public static final OccurrenceIndex EMPTY = build(null);
+
+    private final Task[] tasks;
+    private final RecurrenceRule[] rules;
+
+    private final SparseArray<IntList> byDay = new SparseArray<>();
+    private final IntList daily = new IntList();
+    private final IntList[] byDayOfWeek = new IntList[8];    // Calendar.SUNDAY (1) .. SATURDAY (7)
+    private final IntList[] byDayOfMonth = new IntList[32];  // 1 .. 31
+
+    private OccurrenceIndex(int size) {
+        tasks = new Task[size];
+        rules = new RecurrenceRule[size];
+    }
+
+    public static OccurrenceIndex build(List<Task> source) {
+        int size = source != null ? source.size() : 0;
+        OccurrenceIndex index = new OccurrenceIndex(size);
+
+        for (int i = 0; i < size; i++) {
+            Task task = source.get(i);
+            RecurrenceRule rule = RecurrenceRule.compile(task);
+            index.tasks[i] = task;
+            index.rules[i] = rule;
+
+            if (!rule.hasDate()) continue;
+
+            switch (rule.getMode()) {
+                case DAILY:
+                    index.daily.add(i);
+                    break;
+                case WEEKLY:
+                    bucket(index.byDayOfWeek, rule.getAnchorDayOfWeek()).add(i);
+                    break;
+                case MONTHLY:
+                    bucket(index.byDayOfMonth, rule.getAnchorDayOfMonth()).add(i);
+                    break;
+                default:
+                    IntList list = index.byDay.get(rule.getAnchorDay());
+                    if (list == null) {
+                        list = new IntList();
+                        index.byDay.put(rule.getAnchorDay(), list);
+                    }
+                    list.add(i);
+                    break;
+            }
+        }
+        return index;
+    }
+
+    public int size() {
+        return tasks.length;
+    }
+
+    /**
+     * Visits every task that occurs on the given epoch day, in source-list order per bucket.
+     */
+    public void forEachOn(int day, Visitor visitor) {
+        visit(byDay.get(day), day, visitor);
+        visit(daily, day, visitor);
+        visit(byDayOfWeek[EpochDays.dayOfWeek(day)], day, visitor);
+
+        int dayOfMonth = EpochDays.dayOfMonth(day);
+        visit(byDayOfMonth[dayOfMonth], day, visitor);
+
+        // Monthly reminders anchored on the 29th-31st fall back to the last day of shorter months
+        if (dayOfMonth == EpochDays.lengthOfMonth(EpochDays.year(day), EpochDays.month(day))) {
+            for (int dom = dayOfMonth + 1; dom < byDayOfMonth.length; dom++) {
+                visit(byDayOfMonth[dom], day, visitor);
+            }
+        }
+    }
+
+    private void visit(IntList positions, int day, Visitor visitor) {
+        if (positions == null) return;
+        for (int i = 0; i < positions.size; i++) {
+            int position = positions.values[i];
+            if (!rules[position].occursOn(day)) continue;
+            visitor.visit(tasks[position], rules[position]);
+        }
+    }
+
+    private static IntList bucket(IntList[] buckets, int key) {
+        IntList list = buckets[key];
+        if (list == null) {
+            list = new IntList();
+            buckets[key] = list;
+        }
+        return list;
+    }
+
+    // Growable int array, avoids boxing list positions
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
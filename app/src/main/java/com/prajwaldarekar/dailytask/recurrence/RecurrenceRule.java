@@ -0,0 +1,230 @@
+package com.prajwaldarekar.dailytask.recurrence;
+
+import com.prajwaldarekar.dailytask.models.RepeatMode;
+import com.prajwaldarekar.dailytask.models.Task;
+import com.prajwaldarekar.dailytask.models.TaskType;
+
+import java.util.function.IntConsumer;
+
+/**
+ * A task's {@link RepeatMode} compiled once into primitive epoch-day fields.
+ *
+ * Only repeating REMINDERs produce more than one occurrence; every other task
+ * occurs on its own date. Nothing ever occurs before the anchor day: every query
+ * below applies that bound itself, so callers never clamp. Queries never allocate and never touch {@link java.util.Calendar}:
+ * {@link #occursOn(int)} is O(1) and {@link #forEachOccurrence(int, int, IntConsumer)}
+ * is O(k) in the number of occurrences.
+ */
+public final class RecurrenceRule {
+
+    /** Returned by {@link #nextOnOrAfter(int)} when there is no further occurrence. */
+    public static final int NO_OCCURRENCE = Integer.MAX_VALUE;
+
+    /** Returned by {@link #nextTriggerAfter(long)} when there is no further occurrence. */
+    public static final long NO_TRIGGER = Long.MAX_VALUE;
+
+    private final int taskId;
+    private final RepeatMode mode;
+    private final boolean hasDate;
+    private final int anchorDay;
+    private final int minuteOfDay;
+    private final int anchorDayOfWeek;
+    private final int anchorDayOfMonth;
+
+    private RecurrenceRule(int taskId, RepeatMode mode, boolean hasDate, int anchorDay, int minuteOfDay) {
+        this.taskId = taskId;
+        this.mode = mode;
+        this.hasDate = hasDate;
+        this.anchorDay = anchorDay;
+        this.minuteOfDay = minuteOfDay;
+        this.anchorDayOfWeek = EpochDays.dayOfWeek(anchorDay);
+        this.anchorDayOfMonth = EpochDays.dayOfMonth(anchorDay);
+    }
+
+    public static RecurrenceRule compile(Task task) {
+        RepeatMode mode = task.getType() == TaskType.REMINDER && task.getRepeatMode() != null
+                ? task.getRepeatMode()
+                : RepeatMode.NONE;
+
+        return new RecurrenceRule(task.getId(), mode, true, task.getEpochDay(), task.getMinuteOfDay());
+    }
+
+    /**
+     * Rule for a reminder anchored at the given instant: occurrences fall on the
+     * anchor's local wall-clock time and never before the anchor day.
+     */
+    public static RecurrenceRule of(int taskId, RepeatMode mode, long anchorMillis) {
+        return new RecurrenceRule(taskId, mode != null ? mode : RepeatMode.NONE, true,
+                EpochDays.fromMillis(anchorMillis), EpochDays.minuteOfDay(anchorMillis));
+    }
+
+    public int getTaskId() { return taskId; }
+
+    public RepeatMode getMode() { return mode; }
+
+    public boolean hasDate() { return hasDate; }
+
+    public int getAnchorDay() { return anchorDay; }
+
+    public int getMinuteOfDay() { return minuteOfDay; }
+
+    public int getAnchorDayOfWeek() { return anchorDayOfWeek; }
+
+    public int getAnchorDayOfMonth() { return anchorDayOfMonth; }
+
+    public boolean isRepeating() {
+        return mode != RepeatMode.NONE;
+    }
+
+    /**
+     * Does the task show up on the given day? Never before the anchor day.
+     */
+    public boolean occursOn(int day) {
+        if (!hasDate || day < anchorDay) return false;
+
+        switch (mode) {
+            case DAILY:
+                return true;
+            case WEEKLY:
+                return EpochDays.dayOfWeek(day) == anchorDayOfWeek;
+            case MONTHLY:
+                return EpochDays.dayOfMonth(day) == monthlyDayIn(EpochDays.year(day), EpochDays.month(day));
+            default:
+                return day == anchorDay;
+        }
+    }
+
+    /**
+     * The day the task is shown on relative to a context day (today in the Tasks tab,
+     * the selected date in the Calendar): the occurrence in the context's week for
+     * WEEKLY, in the context's month for MONTHLY, the context itself for DAILY and the
+     * anchor for everything else. A context before the first occurrence shows the anchor.
+     */
+    public int displayDay(int contextDay) {
+        int day;
+        switch (mode) {
+            case DAILY:
+                day = contextDay;
+                break;
+            case WEEKLY:
+                int weekStart = contextDay - EpochDays.indexInWeek(contextDay);
+                day = weekStart + EpochDays.indexInWeek(anchorDay);
+                break;
+            case MONTHLY:
+                int year = EpochDays.year(contextDay);
+                int month = EpochDays.month(contextDay);
+                day = EpochDays.of(year, month, monthlyDayIn(year, month));
+                break;
+            default:
+                return anchorDay;
+        }
+        return Math.max(day, anchorDay);
+    }
+
+    /**
+     * First occurrence on or after the given day, never before the anchor, or {@link #NO_OCCURRENCE}.
+     */
+    public int nextOnOrAfter(int day) {
+        if (!hasDate) return NO_OCCURRENCE;
+        day = Math.max(day, anchorDay);
+
+        switch (mode) {
+            case DAILY:
+                return day;
+            case WEEKLY:
+                return day + Math.floorMod(anchorDayOfWeek - EpochDays.dayOfWeek(day), 7);
+            case MONTHLY:
+                int year = EpochDays.year(day);
+                int month = EpochDays.month(day);
+                int candidate = EpochDays.of(year, month, monthlyDayIn(year, month));
+                if (candidate >= day) return candidate;
+                if (++month > 12) {
+                    month = 1;
+                    year++;
+                }
+                return EpochDays.of(year, month, monthlyDayIn(year, month));
+            default:
+                return day == anchorDay ? anchorDay : NO_OCCURRENCE;
+        }
+    }
+
+    /**
+     * Last occurrence on or before the given day, never before the anchor, or {@link #NO_OCCURRENCE}.
+     */
+    public int previousOnOrBefore(int day) {
+        if (!hasDate || day < anchorDay) return NO_OCCURRENCE;
+
+        switch (mode) {
+            case DAILY:
+                return day;
+            case WEEKLY:
+                return day - Math.floorMod(EpochDays.dayOfWeek(day) - anchorDayOfWeek, 7);
+            case MONTHLY:
+                int year = EpochDays.year(day);
+                int month = EpochDays.month(day);
+                int candidate = EpochDays.of(year, month, monthlyDayIn(year, month));
+                if (candidate <= day) return candidate;
+                if (--month < 1) {
+                    month = 12;
+                    year--;
+                }
+                return EpochDays.of(year, month, monthlyDayIn(year, month));
+            default:
+                return anchorDay;
+        }
+    }
+
+    /**
+     * First occurrence instant strictly after {@code afterMillis}, or {@link #NO_TRIGGER}.
+     *
+     * Derived from the anchor rather than from the previous fire, so late or inexact
+     * delivery never shifts the schedule, and any number of skipped occurrences is
+     * caught up in O(1). Nothing is produced before the anchor itself.
+     */
+    public long nextTriggerAfter(long afterMillis) {
+        if (!hasDate) return NO_TRIGGER;
+
+        int day = nextOnOrAfter(EpochDays.fromMillis(afterMillis));
+        if (day != NO_OCCURRENCE && occurrenceMillis(day) <= afterMillis) {
+            day = nextOnOrAfter(day + 1); // Today's occurrence already passed
+        }
+        return day != NO_OCCURRENCE ? occurrenceMillis(day) : NO_TRIGGER;
+    }
+
+    /**
+     * Calls {@code action} for each occurrence day in [fromDay, toDay), in order.
+     */
+    public void forEachOccurrence(int fromDay, int toDay, IntConsumer action) {
+        int day = nextOnOrAfter(fromDay);
+        while (day < toDay) {
+            action.accept(day);
+            if (mode == RepeatMode.NONE) return;
+            day = nextOnOrAfter(mode == RepeatMode.WEEKLY ? day + 7 : day + 1);
+        }
+    }
+
+    /**
+     * Fills {@code out} with occurrence days in [fromDay, toDay) and returns how many
+     * were written (never more than {@code out.length}).
+     */
+    public int occurrences(int fromDay, int toDay, int[] out) {
+        int count = 0;
+        int day = nextOnOrAfter(fromDay);
+        while (day < toDay && count < out.length) {
+            out[count++] = day;
+            if (mode == RepeatMode.NONE) break;
+            day = nextOnOrAfter(mode == RepeatMode.WEEKLY ? day + 7 : day + 1);
+        }
+        return count;
+    }
+
+    /** UTC instant of the occurrence on the given day, at the task's original time. */
+    public long occurrenceMillis(int day) {
+        return EpochDays.toMillis(day, minuteOfDay);
+    }
+
+    // Same day of month as the anchor, clamped to the last day of shorter months.
+    private int monthlyDayIn(int year, int month) {
+        return Math.min(anchorDayOfMonth, EpochDays.lengthOfMonth(year, month));
+    }
+}
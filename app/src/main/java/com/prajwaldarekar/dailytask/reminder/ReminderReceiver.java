@@ -3,85 +3,52 @@ package com.prajwaldarekar.dailytask.reminder;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
-import android.widget.Toast;
 
 import com.google.firebase.crashlytics.FirebaseCrashlytics;
-import com.prajwaldarekar.dailytask.utils.NotificationUtils;
-
-import java.util.Calendar;
+import com.prajwaldarekar.dailytask.models.RepeatMode;
 
+/**
+ * 🔔 Receives the reminder scheduler's alarm.
+ * Only hands the fire to the scheduler's worker and returns; the broadcast is kept
+ * alive with {@link #goAsync()} until the worker pass that handled it has finished.
+ */
 public class ReminderReceiver extends BroadcastReceiver {
 
     @Override
     public void onReceive(Context context, Intent intent) {
-        try {
-            // 🧾 Extract data from intent
-            String title = intent.getStringExtra("title");
-            String repeatMode = intent.getStringExtra("repeatMode");
+        ReminderScheduler scheduler = ReminderScheduler.getInstance(context);
+
+        // 🧾 Per-task alarm armed by an older version of the app: queue it as due now
+        if (!ReminderScheduler.ACTION_DRAIN.equals(intent.getAction())) {
             long taskId = intent.getLongExtra("taskId", -1L);
-            long createdAt = intent.getLongExtra("createdAt", System.currentTimeMillis());
 
-            // 🛡 Validate taskId and title
+            // 🛡 Validate taskId
             if (taskId == -1L) {
                 FirebaseCrashlytics.getInstance().log("Invalid taskId in ReminderReceiver");
                 return;
             }
 
-            String taskTitle = title != null ? title : "Reminder";
-
-            // ⏰ Check for missed reminder
-            long currentTime = System.currentTimeMillis();
-            if (currentTime - createdAt > 10 * 60 * 1000) {
-                Toast.makeText(context, "⏰ Missed reminder: " + taskTitle, Toast.LENGTH_LONG).show();
-            }
-
-            // 🔔 Show notification
-            NotificationUtils.createNotificationChannel(context);
-            NotificationUtils.showReminderNotification(
-                    context,
-                    taskTitle,
-                    "⏰ Don't forget this task!"
+            scheduler.schedule(
+                    taskId,
+                    intent.getStringExtra("title"),
+                    System.currentTimeMillis(),
+                    legacyRepeatMode(intent.getStringExtra("repeatMode")),
+                    intent.getLongExtra("createdAt", System.currentTimeMillis())
             );
-
-            // 🔁 Reschedule if repeating
-            if (repeatMode != null && !"NONE".equalsIgnoreCase(repeatMode)) {
-                long nextTriggerTime = calculateNextTriggerTime(currentTime, repeatMode);
-
-                if (nextTriggerTime <= currentTime) {
-                    nextTriggerTime = currentTime + 12 * 60 * 60 * 1000; // Fallback +12 hours
-                    FirebaseCrashlytics.getInstance().log("⏰ Fallback inexact alarm set for task ID: " + taskId);
-                }
-
-                ReminderUtils.scheduleReminder(context, taskId, taskTitle, nextTriggerTime, repeatMode, currentTime);
-            }
-
-        } catch (Exception e) {
-            FirebaseCrashlytics.getInstance().recordException(e);
-            Toast.makeText(context, "⚠️ Reminder failed!", Toast.LENGTH_LONG).show();
         }
-    }
 
-    /**
-     * 🔁 Calculate the next reminder time based on the repeat mode.
-     */
-    private long calculateNextTriggerTime(long currentTime, String repeatMode) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTimeInMillis(currentTime);
+        // ⏰ Deliver every due reminder in one batch on the scheduler's worker
+        PendingResult result = goAsync();
+        scheduler.onAlarm(result::finish);
+    }
 
-        switch (repeatMode.toUpperCase()) {
-            case "DAILY":
-                calendar.add(Calendar.DAY_OF_YEAR, 1);
-                break;
-            case "WEEKLY":
-                calendar.add(Calendar.WEEK_OF_YEAR, 1);
-                break;
-            case "MONTHLY":
-                calendar.add(Calendar.MONTH, 1);
-                break;
-            default:
-                break;
+    // 🔁 Legacy alarms carry the RepeatMode name as a string extra
+    private static RepeatMode legacyRepeatMode(String name) {
+        if (name == null) return RepeatMode.NONE;
+        try {
+            return RepeatMode.valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return RepeatMode.NONE;
         }
-
-        return calendar.getTimeInMillis();
     }
 }
@@ -0,0 +1,375 @@
+package com.prajwaldarekar.dailytask.reminder;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.database.Cursor;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.widget.Toast;
+
+import com.google.firebase.crashlytics.FirebaseCrashlytics;
+import com.prajwaldarekar.dailytask.database.AppDatabase;
+import com.prajwaldarekar.dailytask.database.DatabaseExecutor;
+import com.prajwaldarekar.dailytask.database.ReminderQueueDao;
+import com.prajwaldarekar.dailytask.database.TaskDao;
+import com.prajwaldarekar.dailytask.database.TaskStore;
+import com.prajwaldarekar.dailytask.models.ReminderQueueEntry;
+import com.prajwaldarekar.dailytask.models.RepeatMode;
+import com.prajwaldarekar.dailytask.models.Task;
+import com.prajwaldarekar.dailytask.recurrence.EpochDays;
+import com.prajwaldarekar.dailytask.recurrence.RecurrenceRule;
+import com.prajwaldarekar.dailytask.utils.NotificationUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ⏰ Single-alarm reminder scheduler.
+ *
+ * Upcoming occurrences live in the Room `reminder_queue` table and only the earliest
+ * one has a system alarm. When that alarm fires, every reminder due within
+ * {@link #DRAIN_WINDOW_MILLIS} is delivered in one batch, repeating reminders are
+ * re-queued, and the alarm is re-armed for the new head of the queue.
+ *
+ * All work runs on the shared {@link DatabaseExecutor} in coalesced passes: queue writes and alarm
+ * fires that arrive while a pass is pending are folded into it, so at most one
+ * pass is ever waiting no matter how many reminders fire at once.
+ */
+public class ReminderScheduler {
+
+    /** Action of the one alarm intent owned by the scheduler. */
+    public static final String ACTION_DRAIN = "com.prajwaldarekar.dailytask.action.DRAIN_REMINDERS";
+
+    // Reminders due this close to the alarm are delivered with it instead of waking the device again
+    private static final long DRAIN_WINDOW_MILLIS = 60 * 1000;
+
+    private static final long MISSED_THRESHOLD_MILLIS = 10 * 60 * 1000;
+    private static final int ALARM_REQUEST_CODE = 0;
+
+    // Rows inserted per statement batch while rebuilding the queue
+    private static final int RESCHEDULE_BATCH_SIZE = 500;
+
+    // Marks a pending write that removes the task's queue entry
+    private static final ReminderQueueEntry CANCELLED = new ReminderQueueEntry();
+
+    private static volatile ReminderScheduler INSTANCE;
+
+    private final Context appContext;
+    private final AppDatabase database;
+    private final ReminderQueueDao queueDao;
+    private final TaskDao taskDao;
+    private final TaskStore taskStore;
+    private final DatabaseExecutor databaseExecutor = DatabaseExecutor.getInstance();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // 🧺 Work folded into the next pass
+    private final Map<Long, ReminderQueueEntry> pendingWrites = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Runnable> pendingCallbacks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+    private final AtomicBoolean rescheduleRequested = new AtomicBoolean();
+    private final AtomicBoolean passScheduled = new AtomicBoolean();
+
+    // Trigger time of the alarm currently armed, only touched on the worker
+    private long armedAt = Long.MIN_VALUE;
+
+    private ReminderScheduler(Context context) {
+        appContext = context.getApplicationContext();
+        database = AppDatabase.getInstance(appContext);
+        queueDao = database.reminderQueueDao();
+        taskDao = database.taskDao();
+        taskStore = TaskStore.getInstance(appContext);
+    }
+
+    public static ReminderScheduler getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (ReminderScheduler.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new ReminderScheduler(context);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * ✅ Queue (or move) the next occurrence of a task and re-arm the alarm if it became the earliest.
+     */
+    public void schedule(long taskId, String title, long triggerTime, RepeatMode repeatMode, long createdAt) {
+        pendingWrites.put(taskId, new ReminderQueueEntry(taskId, triggerTime, title, repeatMode, createdAt));
+        requestPass(DatabaseExecutor.Priority.USER);
+    }
+
+    /**
+     * ❌ Drop the pending occurrence of a task.
+     */
+    public void cancel(long taskId) {
+        pendingWrites.put(taskId, CANCELLED);
+        requestPass(DatabaseExecutor.Priority.USER);
+    }
+
+    /**
+     * 🔔 Called when the scheduler alarm fires: deliver everything due and arm the next alarm.
+     * {@code onFinished} (may be null) runs on the worker once the pass that handled the fire is done.
+     */
+    public void onAlarm(Runnable onFinished) {
+        if (onFinished != null) {
+            pendingCallbacks.add(onFinished);
+        }
+        drainRequested.set(true);
+        requestPass(DatabaseExecutor.Priority.USER);
+    }
+
+    /**
+     * 🔄 Rebuild the queue from the task table after a reboot, clock or time zone change or an
+     * app update, then re-arm the alarm. {@code onFinished} (may be null) runs on the worker once done.
+     */
+    public void rescheduleAll(Runnable onFinished) {
+        if (onFinished != null) {
+            pendingCallbacks.add(onFinished);
+        }
+        rescheduleRequested.set(true);
+        requestPass(DatabaseExecutor.Priority.MAINTENANCE);
+    }
+
+    // Work folded into an already pending pass runs at that pass's priority
+    private void requestPass(DatabaseExecutor.Priority priority) {
+        if (passScheduled.compareAndSet(false, true)) {
+            databaseExecutor.execute(priority, this::runPass);
+        }
+    }
+
+    /**
+     * One worker pass: apply pending queue writes, rebuild the queue if requested, drain due reminders if an alarm fired,
+     * re-arm the alarm and release every receiver that was waiting on this pass.
+     */
+    private void runPass() {
+        passScheduled.set(false); // Anything arriving from here on schedules another pass
+
+        List<Runnable> callbacks = new ArrayList<>();
+        Runnable callback;
+        while ((callback = pendingCallbacks.poll()) != null) {
+            callbacks.add(callback);
+        }
+        boolean reschedule = rescheduleRequested.getAndSet(false);
+        boolean drain = drainRequested.getAndSet(false);
+
+        try {
+            applyPendingWrites();
+            if (reschedule) {
+                armedAt = Long.MIN_VALUE; // Alarms don't survive a reboot; re-arm unconditionally
+                rebuildQueue();
+            }
+            if (drain) {
+                armedAt = Long.MIN_VALUE; // The fired alarm is gone
+                drainDueReminders();
+            }
+        } catch (Exception e) {
+            FirebaseCrashlytics.getInstance().recordException(e);
+        } finally {
+            try {
+                armNextAlarm();
+            } catch (Exception e) {
+                FirebaseCrashlytics.getInstance().recordException(e);
+            }
+            for (Runnable finished : callbacks) {
+                finished.run();
+            }
+        }
+    }
+
+    private void applyPendingWrites() {
+        if (pendingWrites.isEmpty()) return;
+
+        database.runInTransaction(() -> {
+            for (Long taskId : new ArrayList<>(pendingWrites.keySet())) {
+                ReminderQueueEntry entry = pendingWrites.remove(taskId);
+                if (entry == CANCELLED) {
+                    queueDao.delete(taskId);
+                } else if (entry != null) {
+                    queueDao.upsert(entry);
+                }
+            }
+        });
+    }
+
+    /**
+     * Streams every reminder that can still fire out of the task table and recomputes its
+     * next trigger in one transaction. Entries that are already overdue are kept so they
+     * are still delivered (as missed) by the next drain.
+     */
+    private void rebuildQueue() {
+        EpochDays.refreshZone();
+        long currentTime = System.currentTimeMillis();
+        int today = EpochDays.today();
+
+        database.runInTransaction(() -> {
+            queueDao.deleteAfter(currentTime);
+
+            List<ReminderQueueEntry> batch = new ArrayList<>(RESCHEDULE_BATCH_SIZE);
+            try (Cursor cursor = taskDao.getSchedulableReminders(today)) {
+                int idColumn = cursor.getColumnIndexOrThrow("id");
+                int titleColumn = cursor.getColumnIndexOrThrow("title");
+                int dayColumn = cursor.getColumnIndexOrThrow("epoch_day");
+                int minuteColumn = cursor.getColumnIndexOrThrow("minute_of_day");
+                int repeatModeColumn = cursor.getColumnIndexOrThrow("repeatMode");
+                int createdAtColumn = cursor.getColumnIndexOrThrow("createdAt");
+
+                while (cursor.moveToNext()) {
+                    int taskId = cursor.getInt(idColumn);
+                    RepeatMode repeatMode = RepeatMode.fromCode(cursor.getInt(repeatModeColumn));
+
+                    long trigger = RecurrenceRule.of(taskId, repeatMode,
+                            EpochDays.toMillis(cursor.getInt(dayColumn), cursor.getInt(minuteColumn)))
+                            .nextTriggerAfter(currentTime - 1);
+                    if (trigger == RecurrenceRule.NO_TRIGGER) continue;
+
+                    batch.add(new ReminderQueueEntry(taskId, trigger, cursor.getString(titleColumn),
+                            repeatMode, cursor.getLong(createdAtColumn)));
+                    if (batch.size() == RESCHEDULE_BATCH_SIZE) {
+                        queueDao.insertIfAbsent(batch);
+                        batch.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                queueDao.insertIfAbsent(batch);
+            }
+        });
+    }
+
+    private void drainDueReminders() {
+        long currentTime = System.currentTimeMillis();
+        List<ReminderQueueEntry> due = queueDao.getDueEntries(currentTime + DRAIN_WINDOW_MILLIS);
+        if (due.isEmpty()) return;
+
+        // 🔎 Current title and repeat mode come from the task rows, not from what was queued
+        List<Long> ids = new ArrayList<>(due.size());
+        for (ReminderQueueEntry entry : due) {
+            ids.add(entry.getTaskId());
+        }
+        // 🗄 From memory when the app has the store loaded; a cold broadcast queries just these rows
+        Map<Long, Task> tasks = new HashMap<>();
+        if (taskStore.isLoaded()) {
+            for (long id : ids) {
+                Task task = taskStore.get((int) id);
+                if (task != null) tasks.put(id, task);
+            }
+        } else {
+            for (Task task : taskDao.getTasksByIds(ids)) {
+                tasks.put((long) task.getId(), task);
+            }
+        }
+        Map<Long, Long> anchors = new HashMap<>();
+        List<ReminderQueueEntry> live = new ArrayList<>(due.size());
+        List<ReminderQueueEntry> orphaned = new ArrayList<>();
+        for (ReminderQueueEntry entry : due) {
+            Task task = tasks.get(entry.getTaskId());
+            if (task == null) {
+                orphaned.add(entry); // Task was deleted; nothing to remind about
+                continue;
+            }
+            entry.setTitle(task.getTitle());
+            entry.setRepeatMode(task.getRepeatMode() != null ? task.getRepeatMode() : RepeatMode.NONE);
+            anchors.put(entry.getTaskId(), anchorMillis(task));
+            live.add(entry);
+        }
+
+        NotificationUtils.createNotificationChannel(appContext);
+
+        for (ReminderQueueEntry entry : live) {
+            String taskTitle = entry.getTitle() != null ? entry.getTitle() : "Reminder";
+
+            // ⏰ Check for missed reminder
+            if (currentTime - entry.getTriggerAt() > MISSED_THRESHOLD_MILLIS) {
+                showToast("⏰ Missed reminder: " + taskTitle, Toast.LENGTH_LONG);
+            }
+
+            NotificationUtils.showReminderNotification(
+                    appContext,
+                    taskTitle,
+                    "⏰ Don't forget this task!"
+            );
+        }
+
+        // 🔁 Re-queue repeating reminders and drop one-shots in one transaction
+        database.runInTransaction(() -> {
+            for (ReminderQueueEntry entry : orphaned) {
+                queueDao.delete(entry.getTaskId());
+            }
+            for (ReminderQueueEntry entry : live) {
+                // Next occurrence after this fire, from the task's anchor (the occurrence just fired if unknown)
+                Long anchor = anchors.get(entry.getTaskId());
+                RecurrenceRule rule = RecurrenceRule.of((int) entry.getTaskId(),
+                        entry.getRepeatMode(),
+                        anchor != null ? anchor : entry.getTriggerAt());
+                long nextTriggerTime = rule.nextTriggerAfter(Math.max(currentTime, entry.getTriggerAt()));
+
+                if (nextTriggerTime != RecurrenceRule.NO_TRIGGER) {
+                    entry.setTriggerAt(nextTriggerTime);
+                    entry.setCreatedAt(currentTime);
+                    queueDao.upsert(entry);
+                } else {
+                    queueDao.delete(entry.getTaskId());
+                }
+            }
+        });
+    }
+
+    /**
+     * Arms the single exact alarm for the head of the queue, or cancels it when the queue is empty.
+     * Must run on the worker.
+     */
+    private void armNextAlarm() {
+        Long next = queueDao.getNextTriggerAt();
+        long nextAt = next != null ? next : Long.MIN_VALUE;
+        if (nextAt == armedAt) return; // Already armed for this time
+
+        AlarmManager alarmManager = (AlarmManager) appContext.getSystemService(Context.ALARM_SERVICE);
+        if (alarmManager == null) {
+            FirebaseCrashlytics.getInstance().log("AlarmManager is null, reminder queue not armed");
+            return;
+        }
+
+        PendingIntent pendingIntent = PendingIntent.getBroadcast(
+                appContext,
+                ALARM_REQUEST_CODE,
+                new Intent(appContext, ReminderReceiver.class).setAction(ACTION_DRAIN),
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+
+        try {
+            if (next == null) {
+                alarmManager.cancel(pendingIntent);
+            } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S && !alarmManager.canScheduleExactAlarms()) {
+                alarmManager.set(AlarmManager.RTC_WAKEUP, nextAt, pendingIntent);
+                FirebaseCrashlytics.getInstance().log("Fallback to inexact alarm for reminder queue");
+                showToast("Reminder scheduled inexactly. Allow exact alarms in settings.", Toast.LENGTH_LONG);
+            } else {
+                alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, nextAt, pendingIntent);
+            }
+            armedAt = nextAt;
+        } catch (SecurityException se) {
+            FirebaseCrashlytics.getInstance().recordException(se);
+            showToast("Permission issue scheduling reminder.", Toast.LENGTH_SHORT);
+        }
+    }
+
+    /**
+     * 🕒 Anchor of a reminder: the task's day at its wall-clock minute.
+     */
+    static long anchorMillis(Task task) {
+        return task.getDateMillis();
+    }
+
+    private void showToast(String message, int duration) {
+        mainHandler.post(() -> Toast.makeText(appContext, message, duration).show());
+    }
+}
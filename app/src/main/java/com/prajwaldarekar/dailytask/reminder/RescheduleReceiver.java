@@ -0,0 +1,27 @@
+package com.prajwaldarekar.dailytask.reminder;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+/**
+ * 🔄 Restores reminders after events that wipe or invalidate armed alarms:
+ * reboot, clock or time zone change and app update.
+ * The queue is rebuilt in one batched pass on the scheduler's worker.
+ */
+public class RescheduleReceiver extends BroadcastReceiver {
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        String action = intent.getAction();
+        if (!Intent.ACTION_BOOT_COMPLETED.equals(action)
+                && !Intent.ACTION_TIME_CHANGED.equals(action)
+                && !Intent.ACTION_TIMEZONE_CHANGED.equals(action)
+                && !Intent.ACTION_MY_PACKAGE_REPLACED.equals(action)) {
+            return;
+        }
+
+        PendingResult result = goAsync();
+        ReminderScheduler.getInstance(context).rescheduleAll(result::finish);
+    }
+}
@@ -20,8 +20,13 @@ public class NotificationUtils {
     private static final String CHANNEL_NAME = "Task Reminders";
     private static final String CHANNEL_DESC = "Notifications for task reminders";
 
+    // Channel creation is an IPC; it only has to happen once per process
+    private static volatile boolean channelCreated;
+
     // ✅ Create notification channel (required for Android 8+)
     public static void createNotificationChannel(Context context) {
+        if (channelCreated) return;
+
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
             NotificationChannel channel = new NotificationChannel(
                     CHANNEL_ID,
@@ -36,7 +41,10 @@ public class NotificationUtils {
             NotificationManager manager = context.getSystemService(NotificationManager.class);
             if (manager != null) {
                 manager.createNotificationChannel(channel);
+                channelCreated = true;
             }
+        } else {
+            channelCreated = true;
         }
     }
 
@@ -1,10 +1,9 @@
 package com.prajwaldarekar.dailytask.utils;
 
 import com.prajwaldarekar.dailytask.models.Task;
-import com.prajwaldarekar.dailytask.models.TaskType;
-import com.prajwaldarekar.dailytask.models.RepeatMode;
+import com.prajwaldarekar.dailytask.recurrence.EpochDays;
+import com.prajwaldarekar.dailytask.recurrence.RecurrenceRule;
 
-import java.util.Calendar;
 import java.util.Date;
 
 public class TaskUtils {
@@ -13,51 +12,20 @@ public class TaskUtils {
      * Returns the effective display date based on repeat mode and context.
      * Used to decide which date the reminder is "visible" on.
      *
+     * Prefer compiling a {@link RecurrenceRule} once per task and calling
+     * {@link RecurrenceRule#displayDay(int)} when rendering lists.
+     *
      * @param task        The reminder task.
      * @param contextDate The reference date (today in Tasks tab, selected date in Calendar).
      * @return Date when the task should appear (with original reminder time).
      */
     public static Date getEffectiveDisplayDate(Task task, Date contextDate) {
-        if (task.getType() != TaskType.REMINDER || task.getRepeatMode() == null) {
+        RecurrenceRule rule = RecurrenceRule.compile(task);
+        if (!rule.isRepeating()) {
             return task.getDate();
         }
 
-        Calendar base = Calendar.getInstance();
-        base.setTime(task.getDate()); // Original reminder date (contains original time)
-
-        Calendar context = Calendar.getInstance();
-        context.setTime(contextDate); // Today or selected calendar date
-
-        Calendar effective = Calendar.getInstance();
-        effective.setTime(contextDate); // Start with context date
-
-        switch (task.getRepeatMode()) {
-            case DAILY:
-                // Use today's date or selected date + original time
-                break;
-
-            case WEEKLY:
-                // Set to the same day of week as the original task
-                effective.set(Calendar.DAY_OF_WEEK, base.get(Calendar.DAY_OF_WEEK));
-                break;
-
-            case MONTHLY:
-                // Set to same day of month, or nearest valid day
-                int baseDay = base.get(Calendar.DAY_OF_MONTH);
-                int maxDay = effective.getActualMaximum(Calendar.DAY_OF_MONTH);
-                effective.set(Calendar.DAY_OF_MONTH, Math.min(baseDay, maxDay));
-                break;
-
-            default:
-                return task.getDate(); // Fallback
-        }
-
-        // ✅ Retain original hour/minute from task date
-        effective.set(Calendar.HOUR_OF_DAY, base.get(Calendar.HOUR_OF_DAY));
-        effective.set(Calendar.MINUTE, base.get(Calendar.MINUTE));
-        effective.set(Calendar.SECOND, 0);
-        effective.set(Calendar.MILLISECOND, 0);
-
-        return effective.getTime();
+        int day = rule.displayDay(EpochDays.fromMillis(contextDate.getTime()));
+        return new Date(rule.occurrenceMillis(day));
     }
 }
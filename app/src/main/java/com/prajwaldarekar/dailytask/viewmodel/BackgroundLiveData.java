@@ -0,0 +1,37 @@
+package com.prajwaldarekar.dailytask.viewmodel;
+
+import androidx.lifecycle.MediatorLiveData;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * LiveData whose value is computed on a background executor from its sources.
+ * Each {@link #recompute(Supplier)} supersedes the previous one: an overtaken
+ * computation is skipped if it has not started yet and its result is dropped if it has,
+ * so only the result for the newest inputs is ever published.
+ */
+class BackgroundLiveData<T> extends MediatorLiveData<T> {
+
+    private final Executor executor;
+    private final AtomicInteger generation = new AtomicInteger();
+
+    BackgroundLiveData(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Schedules {@code work} with the inputs it captured; call from the main thread.
+     */
+    void recompute(Supplier<T> work) {
+        int current = generation.incrementAndGet();
+        executor.execute(() -> {
+            if (current != generation.get()) return;
+            T result = work.get();
+            if (current == generation.get()) {
+                postValue(result);
+            }
+        });
+    }
+}
@@ -7,6 +7,7 @@ import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 
 import com.prajwaldarekar.dailytask.database.TaskCompletionRepository;
+import com.prajwaldarekar.dailytask.models.CompletionSnapshot;
 import com.prajwaldarekar.dailytask.models.TaskCompletion;
 
 import java.util.List;
@@ -41,6 +42,13 @@ public class TaskCompletionViewModel extends AndroidViewModel {
         return repository.getAllForDate(date);
     }
 
+    /**
+     * ✅ Get LiveData of the O(1) completion snapshot for a specific date.
+     */
+    public LiveData<CompletionSnapshot> getSnapshotForDate(long date) {
+        return repository.getSnapshotForDate(date);
+    }
+
     /**
      * ✅ Get LiveData list of completions for a specific task.
      */
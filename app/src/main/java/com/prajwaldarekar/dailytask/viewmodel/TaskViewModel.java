@@ -1,31 +1,202 @@
 package com.prajwaldarekar.dailytask.viewmodel;
 
 import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingDataTransforms;
+import androidx.paging.PagingLiveData;
+import androidx.paging.PagingSource;
+import androidx.room.InvalidationTracker;
 
+import com.prajwaldarekar.dailytask.analytics.StreakTracker;
+import com.prajwaldarekar.dailytask.database.TaskCompletionRepository;
 import com.prajwaldarekar.dailytask.database.TaskRepository;
+import com.prajwaldarekar.dailytask.database.TaskStore;
+import com.prajwaldarekar.dailytask.models.CompletionSnapshot;
+import com.prajwaldarekar.dailytask.models.MonthCounts;
+import com.prajwaldarekar.dailytask.models.RepeatMode;
 import com.prajwaldarekar.dailytask.models.Task;
+import com.prajwaldarekar.dailytask.models.TaskStats;
+import com.prajwaldarekar.dailytask.models.TaskType;
+import com.prajwaldarekar.dailytask.models.TaskWithStats;
+import com.prajwaldarekar.dailytask.recurrence.EpochDays;
+import com.prajwaldarekar.dailytask.recurrence.OccurrenceIndex;
+import com.prajwaldarekar.dailytask.recurrence.RecurrenceRule;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class TaskViewModel extends AndroidViewModel {
 
+    // 🗂 Delivered on the main thread with a private copy the caller may edit
+    public interface OnTaskLoadedListener {
+        void onTaskLoaded(@Nullable Task task);
+    }
+
+    // 🗑 Runs on the main thread with the deleted rows as stored, ready to be restored
+    public interface OnTasksDeletedListener {
+        void onTasksDeleted(List<Task> rows);
+    }
+
+    // Finished one-off tasks older than this drop out of the Tasks tab
+    private static final int RECENT_HISTORY_DAYS = 7;
+
+    // 📄 Paged Tasks tab page size
+    private static final int PAGE_SIZE = 50;
+
+    // 🔎 Shorter queries match too much of the table to be useful
+    private static final int MIN_SEARCH_LENGTH = 2;
+    private static final int SEARCH_RESULT_LIMIT = 200;
+
+    // 🗓 Heat map months kept in memory: the visible one, its neighbours and a few recently seen
+    private static final int MONTH_CACHE_SIZE = 6;
+    private static final int NO_MONTH = Integer.MIN_VALUE;
+
     private final TaskRepository repository;
+    private final TaskCompletionRepository completionRepository;
 
     // LiveData for observing task states
     private final LiveData<List<Task>> allTasks;
     private final LiveData<List<Task>> completedTasks;
     private final LiveData<List<Task>> pendingTasks;
 
+    private final LiveData<Integer> taskCount;
+    private LiveData<PagingData<Task>> pagedActiveTasks;
+    private volatile PagingSource<Integer, TaskWithStats> pagedSource;     // Invalidated when the day changes
+
+    // ⚙️ Background stage: merges, filters and sorts lists off the main thread
+    private final ExecutorService backgroundExecutor = Executors.newSingleThreadExecutor();
+
+    // 🪟 Windowed views of the in-memory task store: Tasks tab (recent + pending) and Calendar (selected month)
+    private final BackgroundLiveData<List<Task>> activeTasks = new BackgroundLiveData<>(backgroundExecutor);
+    private final MutableLiveData<Integer> calendarMonth = new MutableLiveData<>();
+    private final BackgroundLiveData<List<Task>> calendarTasks = new BackgroundLiveData<>(backgroundExecutor);
+    private TaskStore.Snapshot latestSnapshot;
+
+    // 📅 Day -> tasks lookup, rebuilt whenever the Calendar task set changes
+    private final BackgroundLiveData<OccurrenceIndex> occurrenceIndex = new BackgroundLiveData<>(backgroundExecutor);
+
+    // 📆 Day the Tasks tab shows, moved forward by refreshToday() when the date has changed
+    private final MutableLiveData<Integer> currentDay;
+    private volatile int today;     // Latest currentDay, also read on background threads
+
+    // 🗂 Tasks tab: active tasks + today's completions -> sorted, render-ready rows
+    private final BackgroundLiveData<List<Task>> todayTasks = new BackgroundLiveData<>(backgroundExecutor);
+    private List<Task> latestActiveTasks;
+    private volatile CompletionSnapshot latestTodayCompletions;  // Also read by search
+
+    // 📅 Calendar: occurrence index + selected day's completions -> sorted rows for that day
+    private final MutableLiveData<Integer> calendarDay = new MutableLiveData<>();
+    private final BackgroundLiveData<List<Task>> calendarDayTasks = new BackgroundLiveData<>(backgroundExecutor);
+    private OccurrenceIndex latestIndex = OccurrenceIndex.EMPTY;
+    private CompletionSnapshot latestDayCompletions;
+
+    // 🔎 Search: ranked matches of the current query, re-run whenever tasks change
+    private final MutableLiveData<List<Task>> searchResults = new MutableLiveData<>();
+    private final AtomicInteger searchGeneration = new AtomicInteger();
+    private volatile String searchQuery;
+    private boolean searchObserverAdded;    // Only touched on backgroundExecutor
+    private final InvalidationTracker.Observer searchObserver = new InvalidationTracker.Observer("tasks") {
+        @Override
+        public void onInvalidated(@NonNull Set<String> tables) {
+            String query = searchQuery;
+            if (query != null) runSearch(query);
+        }
+    };
+
+    // 🗓 Calendar heat map: per-day counts by month, computed in the background and cached.
+    // The visible month and both neighbours are prefetched, so swiping only reads the cache.
+    private final LruCache<Integer, MonthCounts> monthCountsCache = new LruCache<>(MONTH_CACHE_SIZE);
+    private final Set<Integer> loadingMonths = ConcurrentHashMap.newKeySet();
+    private final MutableLiveData<MonthCounts> loadedMonthCounts = new MutableLiveData<>();
+    private int monthCountsGeneration;          // Guarded by monthCountsCache
+    private volatile int visibleMonth = NO_MONTH;
+    private boolean monthCountsObserverAdded;   // Only touched on backgroundExecutor
+    private final InvalidationTracker.Observer monthCountsObserver =
+            new InvalidationTracker.Observer("tasks", "completion_month") {
+                @Override
+                public void onInvalidated(@NonNull Set<String> tables) {
+                    synchronized (monthCountsCache) {
+                        monthCountsGeneration++;    // Loads in flight are now stale
+                        monthCountsCache.evictAll();
+                    }
+                    int month = visibleMonth;
+                    if (month != NO_MONTH) prefetchMonthCounts(month);
+                }
+            };
+
+    // 🗂 Single-task lookups that miss the store finish here
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
     public TaskViewModel(@NonNull Application application) {
         super(application);
         this.repository = new TaskRepository(application);
+        this.completionRepository = new TaskCompletionRepository(application);
         this.allTasks = repository.getAllTasks();
         this.completedTasks = repository.getCompletedTasks();
         this.pendingTasks = repository.getPendingTasks();
+
+        this.today = EpochDays.today();
+        this.currentDay = new MutableLiveData<>(today);
+        // 🔢 A COUNT query answers long before the store has read the whole table
+        this.taskCount = repository.getTaskCount();
+        // 🗄 Every list below is filtered from store snapshots; only the store itself reads Room
+        LiveData<TaskStore.Snapshot> snapshots = repository.getTaskSnapshots();
+        activeTasks.addSource(snapshots, snapshot -> {
+            latestSnapshot = snapshot;
+            recomputeActiveTasks();
+        });
+        activeTasks.addSource(currentDay, day -> recomputeActiveTasks());
+        calendarTasks.addSource(snapshots, snapshot -> {
+            latestSnapshot = snapshot;
+            recomputeCalendarTasks();
+        });
+        calendarTasks.addSource(calendarMonth, monthIndex -> recomputeCalendarTasks());
+
+        occurrenceIndex.addSource(calendarTasks, tasks ->
+                occurrenceIndex.recompute(() -> OccurrenceIndex.build(tasks)));
+
+        todayTasks.addSource(activeTasks, tasks -> {
+            latestActiveTasks = tasks;
+            recomputeTodayTasks();
+        });
+        LiveData<CompletionSnapshot> todayCompletions = Transformations.switchMap(currentDay, day ->
+                completionRepository.getSnapshotForDate(EpochDays.startOfDayMillis(day)));
+        todayTasks.addSource(todayCompletions, completions -> {
+            latestTodayCompletions = completions;
+            recomputeTodayTasks();
+        });
+
+        LiveData<CompletionSnapshot> dayCompletions = Transformations.switchMap(calendarDay, day ->
+                completionRepository.getSnapshotForDate(EpochDays.startOfDayMillis(day)));
+        calendarDayTasks.addSource(occurrenceIndex, index -> {
+            latestIndex = index != null ? index : OccurrenceIndex.EMPTY;
+            recomputeCalendarDayTasks();
+        });
+        calendarDayTasks.addSource(dayCompletions, completions -> {
+            latestDayCompletions = completions;
+            recomputeCalendarDayTasks();
+        });
     }
 
     // 🟡 Get All Tasks
@@ -33,6 +204,213 @@ public class TaskViewModel extends AndroidViewModel {
         return allTasks;
     }
 
+    // 🗂 Get tasks shown on the Tasks tab
+    public LiveData<List<Task>> getActiveTasks() {
+        return activeTasks;
+    }
+
+    // 🗂 Get sorted, render-ready rows for the Tasks tab
+    public LiveData<List<Task>> getTodayTasks() {
+        return todayTasks;
+    }
+
+    // 📅 Get sorted, render-ready rows for the selected Calendar day
+    public LiveData<List<Task>> getCalendarDayTasks() {
+        return calendarDayTasks;
+    }
+
+    /**
+     * 📄 Tasks tab rows paged straight from Room, already sorted by the database.
+     * Repeating reminders get today's display date on the paging executor; streaks come
+     * from the task_stats row joined into each page.
+     */
+    public LiveData<PagingData<Task>> getPagedActiveTasks() {
+        if (pagedActiveTasks == null) {
+            Pager<Integer, TaskWithStats> pager = new Pager<>(
+                    new PagingConfig(PAGE_SIZE, PAGE_SIZE, false),
+                    () -> {
+                        long now = System.currentTimeMillis();
+                        int day = today;
+                        PagingSource<Integer, TaskWithStats> source = repository.getPagedActiveTasks(
+                                day - RECENT_HISTORY_DAYS, EpochDays.startOfDayMillis(day),
+                                (long) EpochDays.fromMillis(now) * EpochDays.MINUTES_PER_DAY + EpochDays.minuteOfDay(now));
+                        pagedSource = source;
+                        return source;
+                    });
+
+            LiveData<PagingData<Task>> decorated = Transformations.map(PagingLiveData.getLiveData(pager),
+                    data -> PagingDataTransforms.map(data, backgroundExecutor, row -> {
+                        Task task = row.getTask();
+                        RecurrenceRule rule = RecurrenceRule.compile(task);
+                        if (rule.isRepeating()) {
+                            task.setDisplayDate(new Date(rule.occurrenceMillis(rule.displayDay(today))));
+                        }
+                        if (task.getType() == TaskType.REMINDER) {
+                            task.setStreak(StreakTracker.currentStreak(row.getStats(), rule, today));
+                        }
+                        return task;
+                    }));
+            pagedActiveTasks = PagingLiveData.cachedIn(decorated, this);
+        }
+        return pagedActiveTasks;
+    }
+
+    // 🔎 Get ranked search results for the current query
+    public LiveData<List<Task>> getSearchResults() {
+        return searchResults;
+    }
+
+    /**
+     * Searches titles and descriptions on the background thread.
+     * Returns false (and stops searching) when the query is too short to search for.
+     */
+    public boolean search(String text) {
+        String query = text != null ? text.trim() : "";
+        if (query.length() < MIN_SEARCH_LENGTH) {
+            searchQuery = null;
+            searchGeneration.incrementAndGet(); // Drop results still in flight
+            return false;
+        }
+
+        searchQuery = query;
+        runSearch(query);
+        return true;
+    }
+
+    private void runSearch(String query) {
+        int generation = searchGeneration.incrementAndGet();
+        backgroundExecutor.execute(() -> {
+            if (generation != searchGeneration.get()) return; // Superseded while queued
+
+            if (!searchObserverAdded) {
+                repository.addInvalidationObserver(searchObserver);
+                searchObserverAdded = true;
+            }
+
+            List<Task> matches = repository.search(query, SEARCH_RESULT_LIMIT);
+            int day = today;
+            CompletionSnapshot completions = latestTodayCompletions;
+            if (completions != null && completions.getDate() != EpochDays.startOfDayMillis(day)) {
+                completions = null;     // Yesterday's toggles: show none rather than the wrong day's
+            }
+            List<Task> rows = new ArrayList<>(matches.size());
+            for (Task task : matches) {
+                rows.add(toTodayRow(task, completions != null ? completions : CompletionSnapshot.EMPTY, day));
+            }
+            attachStreaks(rows, day);
+
+            if (generation == searchGeneration.get()) {
+                searchResults.postValue(rows);
+            }
+        });
+    }
+
+    /**
+     * Looks up the current row of a task for a dialog. Once the task store is loaded the row
+     * comes from memory right away; otherwise (or for a row inserted a moment ago) it is read
+     * by id on the background thread. The listener always runs on the main thread and gets
+     * its own copy, or null if the task is gone.
+     */
+    public void getTask(int id, OnTaskLoadedListener listener) {
+        Task stored = repository.getStoredTask(id);
+        if (stored != null) {
+            listener.onTaskLoaded(new Task(stored));
+            return;
+        }
+
+        backgroundExecutor.execute(() -> {
+            Task task = repository.getTaskById(id);
+            mainHandler.post(() -> listener.onTaskLoaded(task != null ? new Task(task) : null));
+        });
+    }
+
+    // 🔢 Get number of stored tasks
+    public LiveData<Integer> getTaskCount() {
+        return taskCount;
+    }
+
+    // 📅 Get tasks of the month currently shown in the Calendar
+    public LiveData<List<Task>> getCalendarTasks() {
+        return calendarTasks;
+    }
+
+    /**
+     * Selects the Calendar day and moves the Calendar window to its month.
+     * Refilters tasks only when the month actually changes.
+     */
+    public void setCalendarDay(int epochDay) {
+        int monthIndex = EpochDays.monthIndex(epochDay);
+        Integer currentMonth = calendarMonth.getValue();
+        if (currentMonth == null || currentMonth != monthIndex) {
+            calendarMonth.setValue(monthIndex);
+        }
+
+        Integer currentDay = calendarDay.getValue();
+        if (currentDay == null || currentDay != epochDay) {
+            calendarDay.setValue(epochDay);
+        }
+    }
+
+    // 🗓 Emits each month's counts as soon as they are computed
+    public LiveData<MonthCounts> getLoadedMonthCounts() {
+        return loadedMonthCounts;
+    }
+
+    /**
+     * Cached counts of a month, or null while they are still being computed.
+     * Never queries: safe to call while binding calendar cells.
+     */
+    public MonthCounts getCachedMonthCounts(int monthIndex) {
+        return monthCountsCache.get(monthIndex);
+    }
+
+    /**
+     * Tells the heat map which month is on screen; it and both neighbouring months
+     * are computed in the background unless already cached.
+     */
+    public void setVisibleMonth(int monthIndex) {
+        visibleMonth = monthIndex;
+        prefetchMonthCounts(monthIndex);
+    }
+
+    private void prefetchMonthCounts(int monthIndex) {
+        loadMonthCounts(monthIndex);
+        loadMonthCounts(monthIndex + 1);
+        loadMonthCounts(monthIndex - 1);
+    }
+
+    private void loadMonthCounts(int monthIndex) {
+        if (monthCountsCache.get(monthIndex) != null || !loadingMonths.add(monthIndex)) return;
+
+        backgroundExecutor.execute(() -> {
+            try {
+                if (!monthCountsObserverAdded) {
+                    repository.addInvalidationObserver(monthCountsObserver);
+                    monthCountsObserverAdded = true;
+                }
+
+                // Recompute until no write landed in between, so the cache never holds stale counts
+                MonthCounts counts;
+                while (true) {
+                    int generation;
+                    synchronized (monthCountsCache) {
+                        generation = monthCountsGeneration;
+                    }
+                    counts = repository.loadMonthCounts(monthIndex);
+                    synchronized (monthCountsCache) {
+                        if (generation == monthCountsGeneration) {
+                            monthCountsCache.put(monthIndex, counts);
+                            break;
+                        }
+                    }
+                }
+                loadedMonthCounts.postValue(counts);
+            } finally {
+                loadingMonths.remove(monthIndex);
+            }
+        });
+    }
+
     // ✅ Get Completed Tasks
     public LiveData<List<Task>> getCompletedTasks() {
         return completedTasks;
@@ -43,11 +421,21 @@ public class TaskViewModel extends AndroidViewModel {
         return pendingTasks;
     }
 
+    // 📅 Get occurrence index of the Calendar month
+    public LiveData<OccurrenceIndex> getOccurrenceIndex() {
+        return occurrenceIndex;
+    }
+
     // 🔧 Task Actions
     public void insert(Task task) {
         repository.insert(task);
     }
 
+    // 🆔 Insert and receive the generated id on the background thread
+    public void insert(Task task, TaskRepository.OnTaskInsertedListener listener) {
+        repository.insert(task, listener);
+    }
+
     public void update(Task task) {
         repository.update(task);
     }
@@ -59,4 +447,231 @@ public class TaskViewModel extends AndroidViewModel {
     public void deleteById(int id) {
         repository.deleteById(id);
     }
+
+    // 📦 Bulk actions, one transaction each
+    public void insertAll(List<Task> tasks) {
+        repository.insertAll(tasks);
+    }
+
+    public void deleteAll(List<Task> tasks) {
+        repository.deleteAll(tasks);
+    }
+
+    /**
+     * Deletes the tasks, then hands the rows as they were stored (not the render copies
+     * shown in the list) to {@code listener} on the main thread, for an undo via {@link #insertAll}.
+     */
+    public void deleteAll(List<Task> tasks, OnTasksDeletedListener listener) {
+        repository.deleteAll(tasks, rows -> mainHandler.post(() -> listener.onTasksDeleted(rows)));
+    }
+
+    // 💾 Write buffered edits now, e.g. before the app goes to the background and may be killed
+    public void flushPendingWrites() {
+        repository.flushPendingWrites();
+    }
+
+    // ✅ Mark tasks completed (or not) for the day the Tasks tab shows
+    public void setCompletedToday(List<Task> tasks, boolean completed) {
+        repository.setCompleted(tasks, EpochDays.startOfDayMillis(today), completed);
+    }
+
+    /**
+     * 📆 Moves the Tasks tab to the current date if it has changed since the last call,
+     * e.g. when the app is resumed after midnight. Call from the main thread.
+     */
+    public void refreshToday() {
+        int day = EpochDays.today();
+        if (day == today) return;
+
+        today = day;
+        currentDay.setValue(day);
+        PagingSource<Integer, TaskWithStats> source = pagedSource;
+        if (source != null) source.invalidate();   // New window, display dates and streaks
+    }
+
+    // ⚙️ Background list computations
+
+    // Same rows as TaskDao.getActiveTasks: recent, pending, repeating or a one-off reminder never completed
+    private static boolean isActive(Task task, int sinceDay, Set<Integer> completedReminders) {
+        return task.getEpochDay() >= sinceDay
+                || (!task.isCompleted() && task.getType() != TaskType.REMINDER)
+                || isRepeatingReminder(task)
+                || (task.getType() == TaskType.REMINDER && !completedReminders.contains(task.getId()));
+    }
+
+    private static boolean isRepeatingReminder(Task task) {
+        return task.getType() == TaskType.REMINDER && task.getRepeatMode() != RepeatMode.NONE;
+    }
+
+    private void recomputeActiveTasks() {
+        TaskStore.Snapshot snapshot = latestSnapshot;
+        Integer day = currentDay.getValue();
+        if (snapshot == null || day == null) return;
+
+        int sinceDay = day - RECENT_HISTORY_DAYS;
+        activeTasks.recompute(() -> {
+            // 🔔 One-off reminders before the window: their completions live in completion_month
+            List<Long> oldReminders = new ArrayList<>();
+            for (Task task : snapshot.getTasks()) {
+                if (task.getEpochDay() >= sinceDay) break;     // Sorted by day
+                if (task.getType() == TaskType.REMINDER && !isRepeatingReminder(task)) {
+                    oldReminders.add((long) task.getId());
+                }
+            }
+            Set<Integer> completed = oldReminders.isEmpty()
+                    ? Collections.emptySet() : repository.getEverCompletedTaskIds(oldReminders);
+            return snapshot.select(task -> isActive(task, sinceDay, completed));
+        });
+    }
+
+    // Same rows as TaskDao.getTasksInRange for the selected month
+    private void recomputeCalendarTasks() {
+        TaskStore.Snapshot snapshot = latestSnapshot;
+        Integer monthIndex = calendarMonth.getValue();
+        if (snapshot == null || monthIndex == null) return;
+
+        int startDay = EpochDays.ofMonthIndex(monthIndex);
+        int endDay = EpochDays.ofMonthIndex(monthIndex + 1);
+        calendarTasks.recompute(() -> snapshot.select(task ->
+                (task.getEpochDay() >= startDay && task.getEpochDay() < endDay) || isRepeatingReminder(task)));
+    }
+
+    private void recomputeTodayTasks() {
+        Integer day = currentDay.getValue();
+        List<Task> tasks = latestActiveTasks;
+        CompletionSnapshot completions = latestTodayCompletions;
+        // After a day change, wait until that day's completions have arrived
+        if (day == null || tasks == null || completions == null
+                || completions.getDate() != EpochDays.startOfDayMillis(day)) return;
+
+        todayTasks.recompute(() -> attachStreaks(buildTodayRows(tasks, completions, day), day));
+    }
+
+    private void recomputeCalendarDayTasks() {
+        Integer day = calendarDay.getValue();
+        OccurrenceIndex index = latestIndex;
+        CompletionSnapshot completions = latestDayCompletions;
+        // Wait until the completions of the newly selected day have arrived
+        if (day == null || completions == null
+                || completions.getDate() != EpochDays.startOfDayMillis(day)) return;
+
+        calendarDayTasks.recompute(() -> buildCalendarRows(index, completions, day));
+    }
+
+    private static List<Task> buildTodayRows(List<Task> tasks, CompletionSnapshot completions, int today) {
+        List<Task> rows = new ArrayList<>(tasks.size());
+        for (Task source : tasks) {
+            rows.add(toTodayRow(source, completions, today));
+        }
+
+        long now = System.currentTimeMillis();
+        rows.sort((t1, t2) -> {
+            boolean t1Completed = t1.isCompleted();
+            boolean t2Completed = t2.isCompleted();
+
+            if (t1Completed != t2Completed) {
+                return Boolean.compare(t1Completed, t2Completed); // incomplete first
+            }
+
+            long t1Date = t1.getDateMillis();
+            long t2Date = t2.getDateMillis();
+
+            boolean t1Overdue = t1Date < now && !t1Completed;
+            boolean t2Overdue = t2Date < now && !t2Completed;
+
+            if (t1Overdue != t2Overdue)
+                return Boolean.compare(!t1Overdue, !t2Overdue); // overdue first
+
+            if (t1Completed) {
+                long t1Time = completions.getCompletedAt(t1.getId());
+                long t2Time = completions.getCompletedAt(t2.getId());
+                return Long.compare(t2Time, t1Time); // latest completed first
+            }
+
+            return Long.compare(t1Date, t2Date);
+        });
+        return rows;
+    }
+
+    // 🔥 Sets each reminder row's current streak from task_stats (blocking, background thread only)
+    private List<Task> attachStreaks(List<Task> rows, int today) {
+        List<Long> reminderIds = new ArrayList<>();
+        for (Task task : rows) {
+            if (task.getType() == TaskType.REMINDER) reminderIds.add((long) task.getId());
+        }
+        if (reminderIds.isEmpty()) return rows;
+
+        Map<Long, TaskStats> statsById = new HashMap<>();
+        for (TaskStats stats : completionRepository.getStatsForTasks(reminderIds)) {
+            statsById.put(stats.getTaskId(), stats);
+        }
+        for (Task task : rows) {
+            TaskStats stats = statsById.get((long) task.getId());
+            if (stats != null) {
+                task.setStreak(StreakTracker.currentStreak(stats, RecurrenceRule.compile(task), today));
+            }
+        }
+        return rows;
+    }
+
+    // Render copy of a task as the Tasks tab shows it today
+    private static Task toTodayRow(Task source, CompletionSnapshot completions, int today) {
+        Task task = new Task(source);
+        if (task.getType() == TaskType.REMINDER) {
+            task.setCompleted(completions.isCompleted(task.getId()));
+
+            RecurrenceRule rule = RecurrenceRule.compile(task);
+            if (rule.isRepeating()) {
+                task.setDisplayDate(new Date(rule.occurrenceMillis(rule.displayDay(today))));
+            }
+        }
+        return task;
+    }
+
+    private static List<Task> buildCalendarRows(OccurrenceIndex index, CompletionSnapshot completions, int day) {
+        List<Task> rows = new ArrayList<>();
+        index.forEachOn(day, (source, rule) -> {
+            Task task = new Task(source);
+            if (task.getType() == TaskType.REMINDER) {
+                task.setCompleted(completions.isCompleted(task.getId()));
+                task.setDisplayDate(rule.isRepeating()
+                        ? new Date(rule.occurrenceMillis(day))
+                        : task.getDate());
+            } else {
+                task.setDisplayDate(task.getDate());
+            }
+            rows.add(task);
+        });
+
+        // ✅ Sort: Incomplete > Due > Completed
+        rows.sort((t1, t2) -> {
+            boolean t1Completed = t1.isCompleted();
+            boolean t2Completed = t2.isCompleted();
+
+            // Incomplete first
+            if (t1Completed != t2Completed) {
+                return t1Completed ? 1 : -1;
+            }
+
+            // If both same completion state, compare by time (earlier due time comes first)
+            return Long.compare(t1.getDisplayDate().getTime(), t2.getDisplayDate().getTime());
+        });
+        return rows;
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        searchQuery = null;
+        visibleMonth = NO_MONTH;
+        backgroundExecutor.execute(() -> {
+            if (searchObserverAdded) {
+                repository.removeInvalidationObserver(searchObserver);
+            }
+            if (monthCountsObserverAdded) {
+                repository.removeInvalidationObserver(monthCountsObserver);
+            }
+        });
+        backgroundExecutor.shutdown();
+    }
 }
@@ -0,0 +1,73 @@
+package com.prajwaldarekar.dailytask.database;
+
+import com.prajwaldarekar.dailytask.models.RepeatMode;
+import com.prajwaldarekar.dailytask.models.TaskType;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Pins the on-disk enum encoding: every constant survives a round trip, codes are
+ * unique, and the codes match what the 12 -> 13 migration wrote for existing rows.
+ */
+public class ConvertersTest {
+
+    @Test
+    public void taskType_roundTrips() {
+        for (TaskType type : TaskType.values()) {
+            assertSame(type, Converters.toTaskType(Converters.fromTaskType(type)));
+        }
+    }
+
+    @Test
+    public void repeatMode_roundTrips() {
+        for (RepeatMode mode : RepeatMode.values()) {
+            assertSame(mode, Converters.toRepeatMode(Converters.fromRepeatMode(mode)));
+        }
+    }
+
+    @Test
+    public void codes_areUnique() {
+        Set<Integer> typeCodes = new HashSet<>();
+        for (TaskType type : TaskType.values()) {
+            assertTrue(type.name(), typeCodes.add(Converters.fromTaskType(type)));
+        }
+        Set<Integer> modeCodes = new HashSet<>();
+        for (RepeatMode mode : RepeatMode.values()) {
+            assertTrue(mode.name(), modeCodes.add(Converters.fromRepeatMode(mode)));
+        }
+    }
+
+    @Test
+    public void codes_matchStoredFormat() {
+        // Changing any of these needs a new Converters.ENCODING_VERSION and a migration
+        assertEquals(1, Converters.ENCODING_VERSION);
+        assertEquals(0, Converters.fromTaskType(TaskType.TASK));
+        assertEquals(1, Converters.fromTaskType(TaskType.NOTE));
+        assertEquals(2, Converters.fromTaskType(TaskType.REMINDER));
+        assertEquals(0, Converters.fromRepeatMode(RepeatMode.NONE));
+        assertEquals(1, Converters.fromRepeatMode(RepeatMode.DAILY));
+        assertEquals(2, Converters.fromRepeatMode(RepeatMode.WEEKLY));
+        assertEquals(3, Converters.fromRepeatMode(RepeatMode.MONTHLY));
+    }
+
+    @Test
+    public void nulls_storeDefaults() {
+        assertEquals(TaskType.TASK.getCode(), Converters.fromTaskType(null));
+        assertEquals(RepeatMode.NONE.getCode(), Converters.fromRepeatMode(null));
+    }
+
+    @Test
+    public void unknownCodes_readAsDefaults() {
+        assertSame(TaskType.TASK, Converters.toTaskType(-1));
+        assertSame(TaskType.TASK, Converters.toTaskType(TaskType.values().length));
+        assertSame(RepeatMode.NONE, Converters.toRepeatMode(-1));
+        assertSame(RepeatMode.NONE, Converters.toRepeatMode(RepeatMode.values().length));
+    }
+}
@@ -0,0 +1,39 @@
+package com.prajwaldarekar.dailytask.database;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Chunks stay under the bound-variable cap and cover the list exactly once, in order.
+ */
+public class SqlBatchesTest {
+
+    @Test
+    public void emptyList_hasNoChunks() {
+        assertTrue(SqlBatches.chunks(Collections.emptyList()).isEmpty());
+    }
+
+    @Test
+    public void chunks_coverListInOrder() {
+        int[] sizes = {1, SqlBatches.MAX_IN_LIST - 1, SqlBatches.MAX_IN_LIST, SqlBatches.MAX_IN_LIST + 1, 3 * SqlBatches.MAX_IN_LIST + 7};
+        for (int size : sizes) {
+            List<Integer> ids = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) ids.add(i);
+
+            List<Integer> joined = new ArrayList<>(size);
+            List<List<Integer>> chunks = SqlBatches.chunks(ids);
+            for (List<Integer> chunk : chunks) {
+                assertTrue(chunk.size() > 0 && chunk.size() <= SqlBatches.MAX_IN_LIST);
+                joined.addAll(chunk);
+            }
+            assertEquals(ids, joined);
+            assertEquals((size + SqlBatches.MAX_IN_LIST - 1) / SqlBatches.MAX_IN_LIST, chunks.size());
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.prajwaldarekar.dailytask.recurrence;
+
+import com.prajwaldarekar.dailytask.models.RepeatMode;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Simulates years of (late) reminder fires and checks that the next trigger
+ * always comes from the anchor, so the schedule never drifts.
+ */
+public class RecurrenceRuleTest {
+
+    private static final long HOUR = 60 * EpochDays.MILLIS_PER_MINUTE;
+    private static final int YEARS = 5;
+
+    private TimeZone originalZone;
+
+    @Before
+    public void setUp() {
+        originalZone = TimeZone.getDefault();
+        useZone("America/New_York"); // Has DST transitions to cross
+    }
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(originalZone);
+        EpochDays.refreshZone();
+    }
+
+    @Test
+    public void dailyLateFires_keepAnchorTime() {
+        long anchor = EpochDays.toMillis(EpochDays.of(2020, 1, 1), 8 * 60 + 30);
+        RecurrenceRule rule = RecurrenceRule.of(1, RepeatMode.DAILY, anchor);
+        Random random = new Random(42);
+
+        long trigger = rule.nextTriggerAfter(anchor - 1);
+        assertEquals(anchor, trigger);
+
+        int expectedDay = EpochDays.fromMillis(anchor);
+        for (int i = 0; i < YEARS * 365; i++) {
+            assertEquals(expectedDay, EpochDays.fromMillis(trigger));
+            assertEquals(8 * 60 + 30, EpochDays.minuteOfDay(trigger));
+
+            long firedAt = trigger + (long) (random.nextDouble() * 3 * HOUR); // Up to 3h late
+            trigger = rule.nextTriggerAfter(firedAt);
+            expectedDay++;
+        }
+    }
+
+    @Test
+    public void weeklyLateFires_keepWeekdayAndTime() {
+        long anchor = EpochDays.toMillis(EpochDays.of(2021, 3, 12), 23 * 60 + 45); // Friday
+        RecurrenceRule rule = RecurrenceRule.of(2, RepeatMode.WEEKLY, anchor);
+        Random random = new Random(7);
+
+        long trigger = anchor;
+        int expectedDay = EpochDays.fromMillis(anchor);
+        for (int i = 0; i < YEARS * 52; i++) {
+            assertEquals(expectedDay, EpochDays.fromMillis(trigger));
+            assertEquals(Calendar.FRIDAY, EpochDays.dayOfWeek(EpochDays.fromMillis(trigger)));
+            assertEquals(23 * 60 + 45, EpochDays.minuteOfDay(trigger));
+
+            long firedAt = trigger + (long) (random.nextDouble() * 2 * 24 * HOUR); // Up to 2 days late
+            trigger = rule.nextTriggerAfter(firedAt);
+            expectedDay += 7;
+        }
+    }
+
+    @Test
+    public void monthlyOn31st_clampsToMonthEndWithoutDrifting() {
+        long anchor = EpochDays.toMillis(EpochDays.of(2020, 1, 31), 9 * 60);
+        RecurrenceRule rule = RecurrenceRule.of(3, RepeatMode.MONTHLY, anchor);
+        Random random = new Random(31);
+
+        long trigger = anchor;
+        int year = 2020;
+        int month = 1;
+        for (int i = 0; i < YEARS * 12; i++) {
+            int day = EpochDays.fromMillis(trigger);
+            assertEquals(year, EpochDays.year(day));
+            assertEquals(month, EpochDays.month(day));
+            assertEquals(EpochDays.lengthOfMonth(year, month), EpochDays.dayOfMonth(day));
+            assertEquals(9 * 60, EpochDays.minuteOfDay(trigger));
+
+            long firedAt = trigger + (long) (random.nextDouble() * 12 * HOUR);
+            trigger = rule.nextTriggerAfter(firedAt);
+            if (++month > 12) {
+                month = 1;
+                year++;
+            }
+        }
+    }
+
+    @Test
+    public void longOutage_catchesUpInOnePass() {
+        long anchor = EpochDays.toMillis(EpochDays.of(2022, 6, 1), 7 * 60);
+        RecurrenceRule daily = RecurrenceRule.of(4, RepeatMode.DAILY, anchor);
+
+        // Device off for ten days and a bit: next fire is tomorrow's, not one of the skipped ones
+        long firedAt = anchor + 10 * EpochDays.MILLIS_PER_DAY + 3 * HOUR;
+        long next = daily.nextTriggerAfter(firedAt);
+        assertEquals(EpochDays.fromMillis(firedAt) + 1, EpochDays.fromMillis(next));
+        assertEquals(7 * 60, EpochDays.minuteOfDay(next));
+
+        // Fired early in the day: today's occurrence is still ahead
+        long earlyFire = anchor + 10 * EpochDays.MILLIS_PER_DAY - 2 * HOUR;
+        assertEquals(EpochDays.fromMillis(earlyFire), EpochDays.fromMillis(daily.nextTriggerAfter(earlyFire)));
+    }
+
+    @Test
+    public void nothingBeforeAnchor() {
+        long anchor = EpochDays.toMillis(EpochDays.of(2023, 5, 20), 18 * 60);
+        for (RepeatMode mode : RepeatMode.values()) {
+            RecurrenceRule rule = RecurrenceRule.of(5, mode, anchor);
+            assertEquals(mode.name(), anchor, rule.nextTriggerAfter(anchor - 40 * EpochDays.MILLIS_PER_DAY));
+            assertEquals(mode.name(), anchor, rule.nextTriggerAfter(anchor - 1));
+        }
+    }
+
+    @Test
+    public void dayQueries_neverReachBeforeAnchor() {
+        int anchorDay = EpochDays.of(2023, 5, 20);  // Saturday
+        long anchor = EpochDays.toMillis(anchorDay, 18 * 60);
+        for (RepeatMode mode : RepeatMode.values()) {
+            RecurrenceRule rule = RecurrenceRule.of(8, mode, anchor);
+            for (int day = anchorDay - 70; day < anchorDay; day++) {
+                assertFalse(mode + " occurs on " + day, rule.occursOn(day));
+                assertEquals(mode.name(), anchorDay, rule.nextOnOrAfter(day));
+                assertTrue(mode.name(), rule.displayDay(day) >= anchorDay);
+            }
+            assertTrue(mode.name(), rule.occursOn(anchorDay));
+
+            int[] days = new int[8];
+            assertEquals(mode.name(), 1, rule.occurrences(anchorDay - 70, anchorDay + 1, days));
+            assertEquals(mode.name(), anchorDay, days[0]);
+
+            int[] first = {RecurrenceRule.NO_OCCURRENCE};
+            rule.forEachOccurrence(anchorDay - 70, anchorDay + 1, day -> first[0] = Math.min(first[0], day));
+            assertEquals(mode.name(), anchorDay, first[0]);
+        }
+    }
+
+    @Test
+    public void oneOff_hasNoTriggerAfterItFired() {
+        long anchor = EpochDays.toMillis(EpochDays.of(2023, 5, 20), 18 * 60);
+        RecurrenceRule rule = RecurrenceRule.of(6, RepeatMode.NONE, anchor);
+        assertEquals(RecurrenceRule.NO_TRIGGER, rule.nextTriggerAfter(anchor));
+        assertEquals(RecurrenceRule.NO_TRIGGER, rule.nextTriggerAfter(anchor + HOUR));
+    }
+
+    @Test
+    public void matchesBruteForce_acrossZones() {
+        String[] zones = {"America/New_York", "Europe/London", "Australia/Lord_Howe", "Asia/Kolkata", "UTC"};
+        RepeatMode[] modes = {RepeatMode.DAILY, RepeatMode.WEEKLY, RepeatMode.MONTHLY, RepeatMode.NONE};
+        Random random = new Random(2024);
+
+        for (String zone : zones) {
+            useZone(zone);
+            for (int i = 0; i < 20000; i++) {
+                int anchorDay = EpochDays.of(2019, 1, 1) + random.nextInt(5 * 365);
+                long anchor = EpochDays.toMillis(anchorDay, random.nextInt(EpochDays.MINUTES_PER_DAY));
+                RecurrenceRule rule = RecurrenceRule.of(i, modes[random.nextInt(modes.length)], anchor);
+                long after = anchor + (long) ((random.nextDouble() - 0.1) * 400 * EpochDays.MILLIS_PER_DAY);
+
+                assertEquals(zone + " " + rule.getMode() + " anchor=" + anchor + " after=" + after,
+                        bruteForceNext(rule, after), rule.nextTriggerAfter(after));
+            }
+        }
+    }
+
+    @Test
+    public void triggersAreStrictlyIncreasing() {
+        long anchor = EpochDays.toMillis(EpochDays.of(2020, 2, 29), 2 * 60 + 30); // 02:30 is skipped on spring-forward days
+        for (RepeatMode mode : new RepeatMode[]{RepeatMode.DAILY, RepeatMode.WEEKLY, RepeatMode.MONTHLY}) {
+            RecurrenceRule rule = RecurrenceRule.of(7, mode, anchor);
+            long trigger = rule.nextTriggerAfter(anchor - 1);
+            for (int i = 0; i < 2000; i++) {
+                long next = rule.nextTriggerAfter(trigger);
+                assertTrue(mode + " at " + trigger, next > trigger);
+                trigger = next;
+            }
+        }
+    }
+
+    // Scans day by day from the anchor: the first occurrence instant after `after`
+    private static long bruteForceNext(RecurrenceRule rule, long after) {
+        int day = Math.max(rule.getAnchorDay(), EpochDays.fromMillis(after));
+        for (int i = 0; i < 64; i++, day++) {
+            if (rule.occursOn(day) && rule.occurrenceMillis(day) > after) {
+                return rule.occurrenceMillis(day);
+            }
+        }
+        return RecurrenceRule.NO_TRIGGER;
+    }
+
+    private static void useZone(String id) {
+        TimeZone.setDefault(TimeZone.getTimeZone(id));
+        EpochDays.refreshZone();
+    }
+}